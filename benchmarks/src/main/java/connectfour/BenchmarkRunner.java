@@ -0,0 +1,22 @@
+package connectfour;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.*;
+import org.openjdk.jmh.runner.options.*;
+
+/**
+ * Runs the JMH benchmarks with the GC profiler on, so every result also shows
+ * how many bytes each operation allocates (gc.alloc.rate.norm).
+ *
+ * Usage: java -jar benchmarks/target/benchmarks.jar [regex] [more JMH options]
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,57 @@
+package connectfour;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Bot move selection on the position corpus, with and without a
+ * transposition table. The table is emptied before every invocation so each
+ * one searches the corpus from scratch.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BotBenchmark {
+
+    // variables
+    @Param({"6", "10"})
+    int depth;
+
+    BitBoard[] boards;
+    SearchEngine plainEngine;
+    SearchEngine tableEngine;
+    TranspositionTable table;
+
+    @Setup
+    public void setUp() {
+        boards = Positions.bitBoards(Positions.load());
+        table = new TranspositionTable(4L << 20);
+        plainEngine = new SearchEngine(depth, 0);
+        tableEngine = new SearchEngine(depth, 0, table);
+    }
+
+    @Setup(Level.Invocation)
+    public void clearTable() {
+        table.clear();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(Positions.CORPUS_SIZE)
+    public void searchWithoutTable(Blackhole blackhole) {
+        for (BitBoard board : boards) {
+            blackhole.consume(plainEngine.search(board).bestMove);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(Positions.CORPUS_SIZE)
+    public void searchWithTable(Blackhole blackhole) {
+        for (BitBoard board : boards) {
+            blackhole.consume(tableEngine.search(board).bestMove);
+        }
+    }
+}
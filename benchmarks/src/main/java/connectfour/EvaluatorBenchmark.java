@@ -0,0 +1,67 @@
+package connectfour;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * What the heuristic evaluator costs at a search node: a drop, a score and an
+ * undo, with the evaluator following the moves (incremental) or scoring every
+ * window of the board again (rescan).
+ *
+ * Every benchmark goes over the whole position corpus once, and the score is
+ * per position.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EvaluatorBenchmark {
+
+    // variables
+    BitBoard[] bitBoards;
+    Evaluator[] evaluators;
+    int[] dropColumn; // a column that is not full
+
+    @Setup
+    public void setUp() {
+        List<String> positions = Positions.load();
+        bitBoards = Positions.bitBoards(positions);
+        evaluators = new Evaluator[Positions.CORPUS_SIZE];
+        dropColumn = new int[Positions.CORPUS_SIZE];
+        for (int i = 0; i < Positions.CORPUS_SIZE; i++) {
+            BitBoard board = bitBoards[i];
+            int col = 3;
+            while (!board.canPlay(col)) {
+                col = (col + 1) % BitBoard.WIDTH;
+            }
+            dropColumn[i] = col;
+            evaluators[i] = new Evaluator(board, Evaluator.Weights.DEFAULT);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(Positions.CORPUS_SIZE)
+    public void incremental(Blackhole blackhole) {
+        for (int i = 0; i < Positions.CORPUS_SIZE; i++) {
+            bitBoards[i].drop(dropColumn[i]);
+            evaluators[i].drop(dropColumn[i]);
+            blackhole.consume(evaluators[i].evaluate());
+            evaluators[i].undo(dropColumn[i]);
+            bitBoards[i].undo(dropColumn[i]);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(Positions.CORPUS_SIZE)
+    public void rescan(Blackhole blackhole) {
+        for (int i = 0; i < Positions.CORPUS_SIZE; i++) {
+            bitBoards[i].drop(dropColumn[i]);
+            blackhole.consume(evaluators[i].rescan(bitBoards[i]));
+            bitBoards[i].undo(dropColumn[i]);
+        }
+    }
+}
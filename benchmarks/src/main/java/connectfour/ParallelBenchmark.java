@@ -0,0 +1,71 @@
+package connectfour;
+
+import java.util.*;
+
+/**
+ * Measures how much faster ParallelSearch gets with more threads.
+ *
+ * Every thread count searches the same fixed positions to the same depth with
+ * an empty transposition table, and the total time is compared with the time
+ * one thread takes.
+ *
+ * Usage: java -cp benchmarks/target/benchmarks.jar connectfour.ParallelBenchmark [maxThreads] [depth] [tableMegabytes]
+ */
+public class ParallelBenchmark {
+
+    // a few openings and middle games, as move strings
+    static final String[] POSITIONS = {
+        "",
+        "44",
+        "4453",
+        "5552",
+        "4444335",
+        "1234567",
+        "4354621",
+        "3423435",
+        "43443325",
+        "36254163",
+    };
+
+    public static void main(String[] args) {
+        // variables and constants
+        int maxThreads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        int depth = args.length > 1 ? Integer.parseInt(args[1]) : 18;
+        long tableBytes = (args.length > 2 ? Long.parseLong(args[2]) : 64) << 20;
+        double singleThreadMillis = 0;
+        List<Integer> threadCounts = new ArrayList<>();
+
+        // the powers of two below maxThreads, then maxThreads itself, e.g. 1, 2, 4, 6
+        for (int threads = 1; threads < maxThreads; threads *= 2) {
+            threadCounts.add(threads);
+        }
+        threadCounts.add(maxThreads);
+
+        System.out.printf("%d positions, depth %d, %d MB table%n", POSITIONS.length, depth, tableBytes >> 20);
+        System.out.println("threads   time (ms)   nodes/s   speedup");
+
+        for (int threads : threadCounts) {
+            TranspositionTable table = new TranspositionTable(tableBytes);
+            long nanos = 0;
+            long nodes = 0;
+
+            try (ParallelSearch search = new ParallelSearch(threads, depth, 0, table)) {
+                search.search(new BitBoard()); // warm up the JIT before timing
+                for (String moves : POSITIONS) {
+                    BitBoard board = new BitBoard();
+                    board.playMoves(moves);
+                    table.clear();
+                    SearchResult result = search.search(board);
+                    nanos += result.nanos;
+                    nodes += result.nodes;
+                }
+            }
+
+            double millis = nanos / 1e6;
+            if (threads == 1) {
+                singleThreadMillis = millis;
+            }
+            System.out.printf("%7d %11.1f %9d %8.2fx%n", threads, millis, (long) (nodes / (nanos / 1e9)), singleThreadMillis / millis);
+        }
+    }
+}
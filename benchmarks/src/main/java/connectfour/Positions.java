@@ -0,0 +1,74 @@
+package connectfour;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * The corpus of mid-game positions (positions.txt) the benchmarks run on.
+ */
+public class Positions {
+
+    // constants
+    public static final int CORPUS_SIZE = 64; // for @OperationsPerInvocation, which needs a constant
+
+    /*---------------------------------------------------------------------------
+    | List<String> load()                                                       |
+    |---------------------------------------------------------------------------|
+    | returns List<String>: The move strings in positions.txt.                  |
+    ---------------------------------------------------------------------------*/
+    public static List<String> load() {
+        // variables
+        List<String> positions = new ArrayList<>();
+        String line;
+
+        try (InputStream in = Positions.class.getResourceAsStream("/positions.txt")) {
+            if (in == null) {
+                throw new IllegalStateException("positions.txt is missing from the benchmark jar");
+            }
+            BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.US_ASCII));
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (!line.isEmpty() && !line.startsWith("#")) {
+                    positions.add(line);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (positions.size() != CORPUS_SIZE) {
+            throw new IllegalStateException("positions.txt has " + positions.size() + " positions, expected " + CORPUS_SIZE);
+        }
+        return positions;
+    }
+
+    /*---------------------------------------------------------------------------
+    | BitBoard[] bitBoards()                                                    |
+    |---------------------------------------------------------------------------|
+    | returns BitBoard[]: One bitboard per position.                            |
+    ---------------------------------------------------------------------------*/
+    public static BitBoard[] bitBoards(List<String> positions) {
+        BitBoard[] boards = new BitBoard[positions.size()];
+        for (int i = 0; i < boards.length; i++) {
+            boards[i] = new BitBoard();
+            boards[i].playMoves(positions.get(i));
+        }
+        return boards;
+    }
+
+    /*---------------------------------------------------------------------------
+    | char[][][] charBoards()                                                   |
+    |---------------------------------------------------------------------------|
+    | returns char[][][]: One old-style char board per position, with the user  |
+    |                     chip for the first player.                            |
+    ---------------------------------------------------------------------------*/
+    public static char[][][] charBoards(List<String> positions) {
+        BitBoard[] bitBoards = bitBoards(positions);
+        char[][][] boards = new char[bitBoards.length][][];
+        for (int i = 0; i < boards.length; i++) {
+            boards[i] = ConnectFour.setUpBoard();
+            bitBoards[i].toCharBoard(boards[i], ConnectFour.userChip, ConnectFour.botChip);
+        }
+        return boards;
+    }
+}
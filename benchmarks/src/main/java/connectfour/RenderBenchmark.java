@@ -0,0 +1,77 @@
+package connectfour;
+
+import java.io.*;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Printing a board. System.out goes to a stream that throws the bytes away,
+ * so this measures building the output, not the terminal. The ANSI diff
+ * benchmark switches between two positions one move apart, so every print
+ * redraws one cell.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RenderBenchmark {
+
+    // variables
+    BitBoard bitBoard;
+    char[][] charBoard;
+    BitBoard nextBitBoard;
+    PrintStream console;
+    PrintStream discard;
+    BoardRenderer diffRenderer;
+    BoardRenderer compactRenderer;
+    boolean next;
+
+    @Setup
+    public void setUp() {
+        List<String> positions = Positions.load();
+        bitBoard = Positions.bitBoards(positions)[positions.size() / 2];
+        charBoard = Positions.charBoards(positions)[positions.size() / 2];
+        nextBitBoard = new BitBoard();
+        nextBitBoard.copyFrom(bitBoard);
+        for (int col = 0; col < BitBoard.WIDTH; col++) {
+            if (nextBitBoard.canPlay(col)) {
+                nextBitBoard.drop(col);
+                break;
+            }
+        }
+        console = System.out;
+        discard = new PrintStream(OutputStream.nullOutputStream());
+        System.setOut(discard);
+        diffRenderer = new BoardRenderer(BitBoard.HEIGHT, BitBoard.WIDTH, BoardRenderer.Mode.ANSI_DIFF);
+        compactRenderer = new BoardRenderer(BitBoard.HEIGHT, BitBoard.WIDTH, BoardRenderer.Mode.COMPACT);
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.setOut(console);
+    }
+
+    @Benchmark
+    public void printCharBoard() {
+        ConnectFour.printBoard(charBoard);
+    }
+
+    @Benchmark
+    public void printBitBoard() {
+        ConnectFour.printBoard(bitBoard);
+    }
+
+    @Benchmark
+    public void printBitBoardAnsiDiff() {
+        next = !next;
+        diffRenderer.render(next ? nextBitBoard : bitBoard, ConnectFour.userChip, ConnectFour.botChip, discard);
+    }
+
+    @Benchmark
+    public void printBitBoardCompact() {
+        compactRenderer.render(bitBoard, ConnectFour.userChip, ConnectFour.botChip, discard);
+    }
+}
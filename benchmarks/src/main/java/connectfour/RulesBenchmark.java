@@ -0,0 +1,105 @@
+package connectfour;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * The game rules on the char board and on the bitboard: dropping a chip,
+ * checking for the end of the game and setting up a new board.
+ *
+ * Every benchmark goes over the whole position corpus once, and the score is
+ * per position. Drops are taken back right away so the boards stay the same.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RulesBenchmark {
+
+    // variables
+    BitBoard[] bitBoards;
+    char[][][] charBoards;
+    int[] dropColumn; // a column that is not full
+    int[] dropRow; // the char board row a chip dropped in dropColumn lands on
+    char[] nextChip; // the chip of the player to move
+    int[] lastColumn; // the column of the last move
+    char[] lastChip; // the chip of the player who made the last move
+    BitBoard spareBoard = new BitBoard();
+
+    @Setup
+    public void setUp() {
+        List<String> positions = Positions.load();
+        bitBoards = Positions.bitBoards(positions);
+        charBoards = Positions.charBoards(positions);
+        dropColumn = new int[Positions.CORPUS_SIZE];
+        dropRow = new int[Positions.CORPUS_SIZE];
+        nextChip = new char[Positions.CORPUS_SIZE];
+        lastColumn = new int[Positions.CORPUS_SIZE];
+        lastChip = new char[Positions.CORPUS_SIZE];
+        for (int i = 0; i < Positions.CORPUS_SIZE; i++) {
+            String moves = positions.get(i);
+            BitBoard board = bitBoards[i];
+            int col = 3;
+            while (!board.canPlay(col)) {
+                col = (col + 1) % BitBoard.WIDTH;
+            }
+            dropColumn[i] = col;
+            dropRow[i] = ConnectFour.totalRows - 1;
+            while (charBoards[i][dropRow[i]][col] != ' ') {
+                dropRow[i]--;
+            }
+            nextChip[i] = board.playerToMove() == 0 ? ConnectFour.userChip : ConnectFour.botChip;
+            lastColumn[i] = moves.charAt(moves.length() - 1) - '1';
+            lastChip[i] = board.playerToMove() == 0 ? ConnectFour.botChip : ConnectFour.userChip;
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(Positions.CORPUS_SIZE)
+    public void putChipInCharBoard() {
+        for (int i = 0; i < Positions.CORPUS_SIZE; i++) {
+            ConnectFour.putChipInBoard(charBoards[i], dropColumn[i] + 1, nextChip[i]);
+            charBoards[i][dropRow[i]][dropColumn[i]] = ' ';
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(Positions.CORPUS_SIZE)
+    public void putChipInBitBoard() {
+        for (int i = 0; i < Positions.CORPUS_SIZE; i++) {
+            ConnectFour.putChipInBoard(bitBoards[i], dropColumn[i] + 1, nextChip[i]);
+            bitBoards[i].undo(dropColumn[i]);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(Positions.CORPUS_SIZE)
+    public void checkIfGameOverCharBoard(Blackhole blackhole) {
+        for (int i = 0; i < Positions.CORPUS_SIZE; i++) {
+            blackhole.consume(ConnectFour.checkIfGameOver(charBoards[i], lastChip[i]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(Positions.CORPUS_SIZE)
+    public void checkIfGameOverBitBoard(Blackhole blackhole) {
+        for (int i = 0; i < Positions.CORPUS_SIZE; i++) {
+            blackhole.consume(ConnectFour.checkIfGameOver(bitBoards[i], lastColumn[i] + 1, lastChip[i]));
+        }
+    }
+
+    @Benchmark
+    public char[][] setUpCharBoard() {
+        return ConnectFour.setUpBoard();
+    }
+
+    @Benchmark
+    public BitBoard resetBitBoard() {
+        spareBoard.reset();
+        return spareBoard;
+    }
+}
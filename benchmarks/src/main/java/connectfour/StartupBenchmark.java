@@ -0,0 +1,120 @@
+package connectfour;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * Measures how long a cold JVM takes to play the bot's first move, with and
+ * without the startup build's opening book resource and class data sharing
+ * archive (mvn -B package -Pstartup).
+ *
+ * Every run starts a new JVM with the game, answers new player, a name and
+ * column 4, and stops the clock when the game asks for the player's second
+ * move, so the time covers starting the JVM, loading the classes, setting up
+ * the bot and choosing its first move. The setups take turns, so a noisy
+ * machine slows all of them alike, and the first run of each is thrown away.
+ *
+ *   search        no book: the first move is searched on a cold JIT
+ *   book          the book packed in the jar
+ *   search+cds    no book, with the archive
+ *   book+cds      the book and the archive
+ *
+ * Usage: java -cp benchmarks/target/benchmarks.jar connectfour.StartupBenchmark [runs] [game jar] [archive]
+ */
+public class StartupBenchmark {
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        // variables and constants
+        int runs = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        Path jar = Paths.get(args.length > 1 ? args[1] : "core/target/connect-four-1.0-SNAPSHOT.jar");
+        Path archive = Paths.get(args.length > 2 ? args[2] : "core/target/connect-four.jsa");
+        Path work = Files.createTempDirectory("startup");
+        Map<String, List<String>> setups = new LinkedHashMap<>();
+        Map<String, long[]> times = new LinkedHashMap<>();
+
+        if (!Files.isRegularFile(jar)) {
+            System.out.println("Uh oh! " + jar + " doesn't exist, build it with mvn -B package -Pstartup");
+            return;
+        }
+        setups.put("search", List.of("-Dconnectfour.book=none"));
+        setups.put("book", List.of());
+        if (Files.isRegularFile(archive)) {
+            setups.put("search+cds", List.of("-Dconnectfour.book=none", "-XX:SharedArchiveFile=" + archive));
+            setups.put("book+cds", List.of("-XX:SharedArchiveFile=" + archive));
+        } else {
+            System.out.println("No archive at " + archive + ", only timing without one");
+        }
+        for (String setup : setups.keySet()) {
+            times.put(setup, new long[runs]);
+        }
+
+        for (int run = -1; run < runs; run++) {
+            for (Map.Entry<String, List<String>> setup : setups.entrySet()) {
+                long nanos = timeFirstMove(jar, setup.getValue(), work);
+                if (run >= 0) {
+                    times.get(setup.getKey())[run] = nanos;
+                }
+            }
+        }
+
+        System.out.printf("time to the bot's first move, %d runs each%n", runs);
+        System.out.println("setup           min (ms)  median (ms)   max (ms)");
+        for (Map.Entry<String, long[]> time : times.entrySet()) {
+            long[] nanos = time.getValue();
+            Arrays.sort(nanos);
+            System.out.printf("%-12s %11.1f %12.1f %10.1f%n", time.getKey(), nanos[0] / 1e6, nanos[runs / 2] / 1e6,
+                    nanos[runs - 1] / 1e6);
+        }
+    }
+
+    /*---------------------------------------------------------------------------
+    | long timeFirstMove()                                                      |
+    |---------------------------------------------------------------------------|
+    | returns long: Nanoseconds from starting the JVM to the game asking for    |
+    |               the player's second move.                                   |
+    |---------------------------------------------------------------------------|
+    | jar: The game jar.                                                        |
+    | options: JVM options for this setup.                                      |
+    | work: Where the game may keep its stats file.                             |
+    ---------------------------------------------------------------------------*/
+    static long timeFirstMove(Path jar, List<String> options, Path work) throws IOException, InterruptedException {
+        // variables
+        List<String> command = new ArrayList<>();
+        int prompts = 0;
+        long start;
+        long end = 0;
+        Process process;
+
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(options);
+        command.add("-Dconnectfour.botDelayMs=0");
+        command.add("-Dconnectfour.gameLog=none");
+        command.add("-Dconnectfour.stats=" + work.resolve("startup.stats"));
+        command.add("-jar");
+        command.add(jar.toString());
+
+        start = System.nanoTime();
+        process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        try (Writer in = new OutputStreamWriter(process.getOutputStream(), StandardCharsets.UTF_8);
+             BufferedReader out = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            in.write("new\nstartup\n4\n");
+            in.flush();
+            String line;
+            while ((line = out.readLine()) != null) {
+                if (line.contains("What column do you want") && ++prompts == 2) {
+                    end = System.nanoTime();
+                    break;
+                }
+            }
+        } finally {
+            process.destroy(); // closing its input ended the game already
+            process.waitFor();
+        }
+        if (end == 0) {
+            throw new IllegalStateException("the game ended before the bot moved");
+        }
+        return end - start;
+    }
+}
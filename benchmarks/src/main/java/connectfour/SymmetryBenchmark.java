@@ -0,0 +1,91 @@
+package connectfour;
+
+import java.util.*;
+
+/**
+ * Measures what sharing one table entry between a position and its mirror
+ * image saves.
+ *
+ * The first part counts the positions up to a number of moves, once by key and
+ * once by canonical key, which is how many records an opening book of that
+ * depth needs. The second part searches the same positions to the same depth
+ * twice, with and without symmetry, and compares the table entries used, the
+ * hit rate, the nodes searched and the time.
+ *
+ * Usage: java -cp benchmarks/target/benchmarks.jar connectfour.SymmetryBenchmark [book plies] [depth] [tableMegabytes]
+ */
+public class SymmetryBenchmark {
+
+    public static void main(String[] args) {
+        // variables and constants
+        int plies = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+        int depth = args.length > 1 ? Integer.parseInt(args[1]) : 14;
+        long tableBytes = (args.length > 2 ? Long.parseLong(args[2]) : 4) << 20;
+        Set<Long> keys = new HashSet<>();
+        Set<Long> canonicalKeys = new HashSet<>();
+
+        collect(new BitBoard(), plies, keys, canonicalKeys);
+        System.out.printf("positions up to %d moves: %d by key, %d by canonical key (%.1f%%)%n",
+                plies, keys.size(), canonicalKeys.size(), 100.0 * canonicalKeys.size() / keys.size());
+
+        System.out.printf("%d positions, depth %d, %d MB table%n",
+                ParallelBenchmark.POSITIONS.length + Positions.CORPUS_SIZE, depth, tableBytes >> 20);
+        System.out.println("symmetry   entries   hit rate        nodes   time (ms)");
+        search(false, depth, tableBytes); // warm up the JIT before timing
+        for (boolean symmetric : new boolean[] {false, true, false, true}) {
+            search(symmetric, depth, tableBytes);
+        }
+    }
+
+    /*---------------------------------------------------------------------------
+    | void collect()                                                            |
+    |---------------------------------------------------------------------------|
+    | board: The position. Every move after it is visited too, until the        |
+    |        board has plies discs.                                             |
+    ---------------------------------------------------------------------------*/
+    static void collect(BitBoard board, int plies, Set<Long> keys, Set<Long> canonicalKeys) {
+        if (!keys.add(board.key())) {
+            return;
+        }
+        canonicalKeys.add(board.canonicalKey());
+        if (board.moves() == plies) {
+            return;
+        }
+        for (int col = 0; col < BitBoard.WIDTH; col++) {
+            if (board.canPlay(col) && !board.isWinningMove(col)) {
+                board.drop(col);
+                collect(board, plies, keys, canonicalKeys);
+                board.undo(col);
+            }
+        }
+    }
+
+    /*---------------------------------------------------------------------------
+    | void search()                                                             |
+    |---------------------------------------------------------------------------|
+    | This program searches every position with one engine and one table,       |
+    | which is kept from one position to the next like in a game, and prints    |
+    | one line.                                                                 |
+    ---------------------------------------------------------------------------*/
+    static void search(boolean symmetric, int depth, long tableBytes) {
+        // variables
+        TranspositionTable table = new TranspositionTable(tableBytes);
+        SearchEngine engine = new SearchEngine(depth, 0, table);
+        List<String> positions = new ArrayList<>(Arrays.asList(ParallelBenchmark.POSITIONS));
+        BitBoard board = new BitBoard();
+        long nodes = 0;
+        long nanos = 0;
+
+        positions.addAll(Positions.load());
+        engine.useSymmetry(symmetric);
+        for (String moves : positions) {
+            board.reset();
+            board.playMoves(moves);
+            SearchResult result = engine.search(board);
+            nodes += result.nodes;
+            nanos += result.nanos;
+        }
+        System.out.printf("%8s %9d %9.1f%% %12d %11.1f%n", symmetric ? "on" : "off", table.used(),
+                100.0 * table.hits() / Math.max(1, table.hits() + table.misses()), nodes, nanos / 1e6);
+    }
+}
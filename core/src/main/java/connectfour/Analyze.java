@@ -0,0 +1,227 @@
+package connectfour;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Evaluates positions from a file of move strings, without the console.
+ *
+ * Every line is a move string ("4453...") and every output line is that move
+ * string followed by what the bot engine makes of the position:
+ *
+ *   <moves> <score> <best column> <depth, or "end" if solved> <nodes> <microseconds>
+ *
+ * or "<moves> error <reason>" for a line that is not a position the bot could
+ * play (bad column, full column, game already over). Blank lines and lines
+ * starting with '#' are skipped. Positions with few empty cells are solved
+ * exactly, the rest are searched, like botTurn does (with a time limit every
+ * position is searched, since the solver has no deadline). Files of game records
+ * repeat the same openings over and over, so every worker remembers its last
+ * results by canonical key: a position it already evaluated, or the mirror
+ * image of one, is answered from there with 0 nodes.
+ *
+ * The input is streamed: lines are read one at a time and handed to a pool of
+ * worker threads, and at most a fixed window of them is in flight. When the
+ * window is full the oldest position is waited for and written before the
+ * next line is read, so the output is in input order and memory stays the same
+ * for a file of any size.
+ *
+ * Usage: java connectfour.Analyze [file, or - for standard input] [threads] [depth] [time ms]
+ */
+public class Analyze {
+
+    // constants
+    static final int WINDOW_PER_THREAD = 256; // positions in flight per worker
+    static final int CACHE_SLOTS = 1 << 16; // results each worker remembers
+    private static final int SOLVED = 0xFF; // the depth of a cached result that was solved to the end
+
+    // variables
+    private final int threads;
+    private final int depth;
+    private final long timeMillis;
+    private final int solveEmptyCells;
+    private final ThreadLocal<Worker> workers;
+
+    /*---------------------------------------------------------------------------
+    | Analyze()                                                                 |
+    |---------------------------------------------------------------------------|
+    | threads: How many positions are evaluated at the same time.               |
+    | depth: How deep positions are searched.                                   |
+    | timeMillis: How long one position may be searched. 0 means no limit.      |
+    | solveEmptyCells: Positions with this many empty cells or fewer are solved |
+    |                  to the end instead.                                      |
+    ---------------------------------------------------------------------------*/
+    public Analyze(int threads, int depth, long timeMillis, int solveEmptyCells) {
+        this.threads = threads;
+        this.depth = depth;
+        this.timeMillis = timeMillis;
+        this.solveEmptyCells = solveEmptyCells;
+        this.workers = ThreadLocal.withInitial(Worker::new);
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        // variables and constants
+        String file = args.length > 0 ? args[0] : "-";
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        long timeMillis = args.length > 3 ? Long.parseLong(args[3]) : Long.getLong("connectfour.timeMs", 0);
+        int depth = args.length > 2 ? Integer.parseInt(args[2]) : SearchEngine.depthFromProperties(timeMillis);
+        int solveEmptyCells = timeMillis > 0 ? -1 // the solver has no deadline
+                : Integer.getInteger("connectfour.solveEmpty", Solver.DEFAULT_EMPTY_CELLS);
+        Analyze analyze = new Analyze(threads, depth, timeMillis, solveEmptyCells);
+        long start = System.nanoTime();
+        long positions;
+        double seconds;
+
+        try (BufferedReader in = file.equals("-")
+                ? new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8), 1 << 16)
+                : Files.newBufferedReader(Paths.get(file), StandardCharsets.UTF_8);
+             Writer out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), 1 << 16)) {
+            positions = analyze.run(in, out);
+        }
+        seconds = (System.nanoTime() - start) / 1e9;
+
+        // the summary goes to stderr so stdout is only results
+        System.err.printf("%d positions on %d threads in %.2f s (%.0f positions/s)%n",
+                positions, threads, seconds, positions / seconds);
+    }
+
+    /*---------------------------------------------------------------------------
+    | long run()                                                                |
+    |---------------------------------------------------------------------------|
+    | returns long: How many positions were evaluated (or rejected).            |
+    |---------------------------------------------------------------------------|
+    | in: The move strings, one per line.                                       |
+    | out: Where the results are written, one line per position, in order.      |
+    ---------------------------------------------------------------------------*/
+    public long run(BufferedReader in, Writer out) throws IOException, InterruptedException {
+        // variables
+        ExecutorService pool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "analyze-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Deque<Future<String>> inFlight = new ArrayDeque<>(threads * WINDOW_PER_THREAD);
+        long positions = 0;
+        String line;
+
+        try {
+            while ((line = in.readLine()) != null) {
+                String moves = line.trim();
+                if (moves.isEmpty() || moves.startsWith("#")) {
+                    continue;
+                }
+                if (inFlight.size() == threads * WINDOW_PER_THREAD) {
+                    write(inFlight.removeFirst(), out);
+                }
+                inFlight.addLast(pool.submit(() -> workers.get().evaluate(moves)));
+                positions++;
+            }
+            while (!inFlight.isEmpty()) {
+                write(inFlight.removeFirst(), out);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        out.flush();
+        return positions;
+    }
+
+    private static void write(Future<String> result, Writer out) throws IOException, InterruptedException {
+        try {
+            out.write(result.get());
+            out.write('\n');
+        } catch (ExecutionException ee) {
+            throw new IllegalStateException("analyze worker failed", ee.getCause());
+        }
+    }
+
+    /**
+     * One worker thread's board, search engine and solver. They share the
+     * worker's table, and the table and the results cache are kept from one
+     * position to the next. A cached result packs the score + 128, the best
+     * column of the position with the smaller key (bits 8-11) and the depth
+     * (bits 12-19) into an int, which is never 0.
+     */
+    private class Worker {
+
+        // variables
+        private final Board board = Board.fromProperties();
+        private final TranspositionTable table = new TranspositionTable(Strategies.TABLE_BYTES);
+        private final SearchEngine engine = new SearchEngine(depth, timeMillis, table);
+        private final Solver solver = new Solver(table);
+        private final StringBuilder result = new StringBuilder(128);
+        private final long[] cachedKeys = new long[CACHE_SLOTS];
+        private final int[] cachedResults = new int[CACHE_SLOTS];
+
+        /*---------------------------------------------------------------------------
+        | String evaluate()                                                         |
+        |---------------------------------------------------------------------------|
+        | returns String: The output line for the move string.                      |
+        |---------------------------------------------------------------------------|
+        | moves: One move string from the input.                                    |
+        ---------------------------------------------------------------------------*/
+        String evaluate(String moves) {
+            result.setLength(0);
+            result.append(moves).append(' ');
+            board.reset();
+            try {
+                board.playMoves(moves);
+            } catch (IllegalArgumentException e) {
+                return result.append("error ").append(e.getMessage()).toString();
+            }
+            if (moves.length() > 0 && board.lastMoveWins(moves.charAt(moves.length() - 1) - '1')) {
+                return result.append("error the game is already won").toString();
+            }
+            if (board.isFull()) {
+                return result.append("error the board is full").toString();
+            }
+
+            // variables
+            long start = System.nanoTime();
+            long key = board.key();
+            long mirrorKey = board.mirrorKey();
+            long canonicalKey = Math.min(key, mirrorKey);
+            int flip = mirrorKey < key ? board.width() - 1 : -1; // the cache keeps the mirror image
+            int slot = (int) ((canonicalKey * 0x9E3779B97F4A7C15L) >>> 48) & (CACHE_SLOTS - 1);
+            int cached = cachedKeys[slot] == canonicalKey ? cachedResults[slot] : 0;
+            int score;
+            int bestMove;
+            int searchedDepth;
+            long nodes;
+
+            if (cached != 0) {
+                score = (cached & 0xFF) - 128;
+                bestMove = flip < 0 ? cached >>> 8 & 0xF : flip - (cached >>> 8 & 0xF);
+                searchedDepth = cached >>> 12;
+                nodes = 0;
+            } else if (board.size() - board.moves() <= solveEmptyCells) {
+                Solution solution = solver.solve(board);
+                score = solution.score;
+                bestMove = solution.bestMove;
+                searchedDepth = SOLVED;
+                nodes = solution.nodes;
+            } else {
+                SearchResult search = engine.search(board);
+                score = search.score;
+                bestMove = search.bestMove;
+                searchedDepth = search.depth;
+                nodes = search.nodes;
+            }
+            if (cached == 0) {
+                cachedKeys[slot] = canonicalKey;
+                cachedResults[slot] = (score + 128) | (flip < 0 ? bestMove : flip - bestMove) << 8 | searchedDepth << 12;
+            }
+
+            result.append(score).append(' ').append(bestMove + 1).append(' ');
+            if (searchedDepth == SOLVED) {
+                result.append("end");
+            } else {
+                result.append(searchedDepth);
+            }
+            return result.append(' ').append(nodes).append(' ').append((System.nanoTime() - start) / 1000).toString();
+        }
+    }
+}
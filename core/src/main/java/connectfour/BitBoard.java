@@ -0,0 +1,295 @@
+package connectfour;
+
+/**
+ * Connect Four game state stored as bitboards.
+ *
+ * Each player's discs are kept in one long. Every column uses seven bits: six
+ * for the rows (bottom row first) and one empty sentinel bit on top so shifted
+ * lines never wrap from one column into the next. A height array remembers the
+ * next free bit of every column, which makes dropping and undoing a disc O(1).
+ *
+ * Player 0 is whoever moves first, player 1 is the other one. This is the
+ * board for the usual 7 x 6 game with four in a row; Board.create picks a
+ * GridBoard for every other variant.
+ */
+public class BitBoard implements Board {
+
+    // constants
+    public static final int WIDTH = 7;
+    public static final int HEIGHT = 6;
+    public static final int SIZE = WIDTH * HEIGHT;
+    public static final int CONNECT = 4;
+    static final int H1 = HEIGHT + 1; // bits per column (with the sentinel bit)
+    private static final long COLUMN = (1L << H1) - 1; // the bits of column 0
+
+    // variables
+    private final long[] discs = new long[2]; // discs of player 0 and player 1
+    private final int[] height = new int[WIDTH]; // next free bit index for each column
+    private int moves;
+
+    public BitBoard() {
+        reset();
+    }
+
+    /*---------------------------------------------------------------------------
+    | void reset()                                                              |
+    |---------------------------------------------------------------------------|
+    | This program empties the board so it can be reused for a new game.        |
+    ---------------------------------------------------------------------------*/
+    @Override
+    public void reset() {
+        discs[0] = 0;
+        discs[1] = 0;
+        for (int col = 0; col < WIDTH; col++) {
+            height[col] = col * H1;
+        }
+        moves = 0;
+    }
+
+    /*---------------------------------------------------------------------------
+    | void copyFrom()                                                           |
+    |---------------------------------------------------------------------------|
+    | other: The board to copy, another BitBoard.                               |
+    |---------------------------------------------------------------------------|
+    | This program makes this board the same position as the other board.       |
+    ---------------------------------------------------------------------------*/
+    @Override
+    public void copyFrom(Board board) {
+        BitBoard other = (BitBoard) board;
+        discs[0] = other.discs[0];
+        discs[1] = other.discs[1];
+        System.arraycopy(other.height, 0, height, 0, WIDTH);
+        moves = other.moves;
+    }
+
+    /*---------------------------------------------------------------------------
+    | boolean canPlay()                                                         |
+    |---------------------------------------------------------------------------|
+    | returns boolean: True if the column still has room for a disc.            |
+    |---------------------------------------------------------------------------|
+    | col: The column, from 0 to 6.                                             |
+    ---------------------------------------------------------------------------*/
+    @Override
+    public boolean canPlay(int col) {
+        return height[col] < col * H1 + HEIGHT;
+    }
+
+    /*---------------------------------------------------------------------------
+    | void drop()                                                               |
+    |---------------------------------------------------------------------------|
+    | col: The column, from 0 to 6. The column must not be full.                |
+    |---------------------------------------------------------------------------|
+    | This program drops a disc for the player to move into the column.         |
+    ---------------------------------------------------------------------------*/
+    @Override
+    public void drop(int col) {
+        discs[moves & 1] |= 1L << height[col]++;
+        moves++;
+    }
+
+    /*---------------------------------------------------------------------------
+    | void undo()                                                               |
+    |---------------------------------------------------------------------------|
+    | col: The column the last disc was dropped in.                             |
+    |---------------------------------------------------------------------------|
+    | This program takes the top disc back out of the column.                   |
+    ---------------------------------------------------------------------------*/
+    @Override
+    public void undo(int col) {
+        moves--;
+        discs[moves & 1] ^= 1L << --height[col];
+    }
+
+    /*---------------------------------------------------------------------------
+    | long key()                                                                |
+    |---------------------------------------------------------------------------|
+    | returns long: A number that is different for every position.              |
+    |---------------------------------------------------------------------------|
+    | The key is the discs of the player to move plus all discs. Inside each    |
+    | column the sum sets the bit just above the top disc, so the heights can   |
+    | be read back, and the discs below tell whose they are.                    |
+    ---------------------------------------------------------------------------*/
+    @Override
+    public long key() {
+        return discs[moves & 1] + (discs[0] | discs[1]);
+    }
+
+    /*---------------------------------------------------------------------------
+    | long mirrorKey()                                                          |
+    |---------------------------------------------------------------------------|
+    | returns long: The key of the board flipped left to right.                 |
+    |---------------------------------------------------------------------------|
+    | The sum in key() never carries from one column into the next, so the      |
+    | mirrored key is just the key with its seven column groups swapped around  |
+    | the center column.                                                        |
+    ---------------------------------------------------------------------------*/
+    @Override
+    public long mirrorKey() {
+        long key = key();
+        return (key & COLUMN << 3 * H1)
+                | (key & COLUMN) << 6 * H1 | (key >>> 6 * H1 & COLUMN)
+                | (key & COLUMN << H1) << 4 * H1 | (key >>> 5 * H1 & COLUMN) << H1
+                | (key & COLUMN << 2 * H1) << 2 * H1 | (key >>> 4 * H1 & COLUMN) << 2 * H1;
+    }
+
+    /*---------------------------------------------------------------------------
+    | boolean isWinningMove()                                                   |
+    |---------------------------------------------------------------------------|
+    | returns boolean: True if dropping into the column wins for the player to  |
+    |                  move. The board is not changed.                          |
+    |---------------------------------------------------------------------------|
+    | col: The column, from 0 to 6. The column must not be full.                |
+    ---------------------------------------------------------------------------*/
+    @Override
+    public boolean isWinningMove(int col) {
+        return isWin(discs[moves & 1] | (1L << height[col]));
+    }
+
+    /*---------------------------------------------------------------------------
+    | boolean isWin()                                                           |
+    |---------------------------------------------------------------------------|
+    | returns boolean: True if the discs contain four in a row.                 |
+    |---------------------------------------------------------------------------|
+    | bits: The discs of one player.                                            |
+    |---------------------------------------------------------------------------|
+    | Every direction is checked with two shifts: pairs first, then pairs of    |
+    | pairs. The four results are OR-ed together so there are no branches.      |
+    ---------------------------------------------------------------------------*/
+    public static boolean isWin(long bits) {
+        long vertical = bits & (bits >>> 1);
+        long horizontal = bits & (bits >>> H1);
+        long diagonal1 = bits & (bits >>> HEIGHT);
+        long diagonal2 = bits & (bits >>> (H1 + 1));
+        return ((vertical & (vertical >>> 2))
+                | (horizontal & (horizontal >>> (2 * H1)))
+                | (diagonal1 & (diagonal1 >>> (2 * HEIGHT)))
+                | (diagonal2 & (diagonal2 >>> (2 * (H1 + 1))))) != 0;
+    }
+
+    /*---------------------------------------------------------------------------
+    | boolean lastMoveWins()                                                    |
+    |---------------------------------------------------------------------------|
+    | returns boolean: True if the last disc dropped made four in a row.        |
+    |---------------------------------------------------------------------------|
+    | col: The column the last disc was dropped in.                             |
+    |---------------------------------------------------------------------------|
+    | Only the four lines going through the new disc are looked at, since any   |
+    | other line was already checked on an earlier move.                        |
+    ---------------------------------------------------------------------------*/
+    @Override
+    public boolean lastMoveWins(int col) {
+        long own = discs[(moves - 1) & 1];
+        long cell = 1L << (height[col] - 1);
+        return countLine(own, cell, 1) >= 4
+                || countLine(own, cell, H1) >= 4
+                || countLine(own, cell, HEIGHT) >= 4
+                || countLine(own, cell, H1 + 1) >= 4;
+    }
+
+    /*---------------------------------------------------------------------------
+    | int countLine()                                                           |
+    |---------------------------------------------------------------------------|
+    | returns int: How many discs in a row the line through the cell has.       |
+    |---------------------------------------------------------------------------|
+    | own: The discs of the player who owns the cell.                           |
+    | cell: The bit of the cell.                                                |
+    | shift: The bit distance between two neighbours on the line.               |
+    ---------------------------------------------------------------------------*/
+    private static int countLine(long own, long cell, int shift) {
+        int count = 1;
+        for (long bit = cell << shift; (own & bit) != 0; bit <<= shift) {
+            count++;
+        }
+        for (long bit = cell >>> shift; (own & bit) != 0; bit >>>= shift) {
+            count++;
+        }
+        return count;
+    }
+
+    /*---------------------------------------------------------------------------
+    | int cell()                                                                |
+    |---------------------------------------------------------------------------|
+    | returns int: 0 or 1 for the player owning the cell, -1 if it is empty.    |
+    |---------------------------------------------------------------------------|
+    | row: The row counted from the bottom, from 0 to 5.                        |
+    | col: The column, from 0 to 6.                                             |
+    ---------------------------------------------------------------------------*/
+    @Override
+    public int cell(int row, int col) {
+        long bit = 1L << (col * H1 + row);
+        if ((discs[0] & bit) != 0) {
+            return 0;
+        } else if ((discs[1] & bit) != 0) {
+            return 1;
+        }
+        return -1;
+    }
+
+    @Override
+    public BitBoard copy() {
+        BitBoard board = new BitBoard();
+        board.copyFrom(this);
+        return board;
+    }
+
+    @Override
+    public int width() {
+        return WIDTH;
+    }
+
+    @Override
+    public int height() {
+        return HEIGHT;
+    }
+
+    @Override
+    public int connect() {
+        return CONNECT;
+    }
+
+    @Override
+    public int size() {
+        return SIZE;
+    }
+
+    public long discs(int player) {
+        return discs[player];
+    }
+
+    /*---------------------------------------------------------------------------
+    | void fromCharBoard()                                                      |
+    |---------------------------------------------------------------------------|
+    | gameBoard: A 6 x 7 board with row 0 at the top.                           |
+    | firstChip: The chip of player 0.                                          |
+    | secondChip: The chip of player 1.                                         |
+    |---------------------------------------------------------------------------|
+    | This program is the other half of the adapter: it overwrites this board   |
+    | with the chips of a char board.                                           |
+    ---------------------------------------------------------------------------*/
+    @Override
+    public void fromCharBoard(char[][] gameBoard, char firstChip, char secondChip) {
+        reset();
+        for (int col = 0; col < WIDTH; col++) {
+            for (int row = HEIGHT - 1; row >= 0; row--) {
+                char chip = gameBoard[row][col];
+                if (chip == firstChip) {
+                    discs[0] |= 1L << height[col]++;
+                    moves++;
+                } else if (chip == secondChip) {
+                    discs[1] |= 1L << height[col]++;
+                    moves++;
+                }
+            }
+        }
+    }
+
+    @Override
+    public boolean isFull() {
+        return moves == SIZE;
+    }
+
+    @Override
+    public int moves() {
+        return moves;
+    }
+}
@@ -0,0 +1,164 @@
+package connectfour;
+
+/**
+ * A Connect Four board of any size where any number in a row wins.
+ *
+ * The usual 7 x 6 board with four in a row is a BitBoard, which keeps each
+ * player's discs in one long and checks wins with a few shifts. Every other
+ * variant (8 x 7, 9 x 7, connect five, ...) is a GridBoard, which keeps one
+ * byte per cell and counts along the lines. The search engine, the strategies
+ * and the game only use this interface, so they play every variant, and on the
+ * usual board the JIT only ever sees the BitBoard.
+ *
+ * Columns are numbered from 0 and rows from 0 at the bottom. Player 0 is
+ * whoever moves first, player 1 is the other one.
+ */
+public interface Board {
+
+    // constants
+    int MAX_WIDTH = 15; // the transposition table keeps a best column in 4 bits
+    int MAX_HEIGHT = 15;
+
+    /*---------------------------------------------------------------------------
+    | Board create()                                                            |
+    |---------------------------------------------------------------------------|
+    | returns Board: An empty board, a BitBoard if the variant is 7 x 6 with    |
+    |                four in a row.                                             |
+    |---------------------------------------------------------------------------|
+    | width: How many columns, from 1 to 15.                                    |
+    | height: How many rows, from 1 to 15.                                      |
+    | connect: How many discs in a row win, at least 2.                         |
+    ---------------------------------------------------------------------------*/
+    static Board create(int width, int height, int connect) {
+        if (width < 1 || width > MAX_WIDTH || height < 1 || height > MAX_HEIGHT) {
+            throw new IllegalArgumentException("the board must be 1 to " + MAX_WIDTH + " columns by 1 to "
+                    + MAX_HEIGHT + " rows: " + width + " x " + height);
+        }
+        if (connect < 2) {
+            throw new IllegalArgumentException("at least 2 in a row must win: " + connect);
+        }
+        if (width == BitBoard.WIDTH && height == BitBoard.HEIGHT && connect == BitBoard.CONNECT) {
+            return new BitBoard();
+        }
+        return new GridBoard(width, height, connect);
+    }
+
+    /*---------------------------------------------------------------------------
+    | Board fromProperties()                                                    |
+    |---------------------------------------------------------------------------|
+    | returns Board: An empty board of the variant set by the system            |
+    |                properties connectfour.cols, connectfour.rows and          |
+    |                connectfour.connect (7, 6 and 4 by default).               |
+    ---------------------------------------------------------------------------*/
+    static Board fromProperties() {
+        return create(Integer.getInteger("connectfour.cols", BitBoard.WIDTH),
+                Integer.getInteger("connectfour.rows", BitBoard.HEIGHT),
+                Integer.getInteger("connectfour.connect", BitBoard.CONNECT));
+    }
+
+    int width();
+
+    int height();
+
+    int connect(); // how many in a row win
+
+    default int size() {
+        return width() * height();
+    }
+
+    void reset(); // empties the board for a new game
+
+    Board copy(); // a new board with the same variant and position
+
+    void copyFrom(Board other); // other must be the same class and variant
+
+    /*---------------------------------------------------------------------------
+    | void playMoves()                                                          |
+    |---------------------------------------------------------------------------|
+    | moves: The columns to play, one digit from 1 per move ("4453"). Only      |
+    |        boards up to 9 columns wide can be written this way.               |
+    |---------------------------------------------------------------------------|
+    | This program plays a move string on the board. It throws an               |
+    | IllegalArgumentException if a move is not a column, the column is full    |
+    | or the game was already won.                                              |
+    ---------------------------------------------------------------------------*/
+    default void playMoves(CharSequence moves) {
+        for (int i = 0; i < moves.length(); i++) {
+            int col = moves.charAt(i) - '1';
+            if (col < 0 || col >= width() || !canPlay(col)) {
+                throw new IllegalArgumentException("illegal move " + moves.charAt(i) + " at " + (i + 1) + " in " + moves);
+            }
+            if (isWinningMove(col) && i < moves.length() - 1) {
+                throw new IllegalArgumentException("the game is over after move " + (i + 1) + " in " + moves);
+            }
+            drop(col);
+        }
+    }
+
+    boolean canPlay(int col); // the column still has room for a disc
+
+    void drop(int col); // drops a disc for the player to move, the column must not be full
+
+    void undo(int col); // takes the top disc back out of the column
+
+    long key(); // a number for the position, the same for the same discs
+
+    long mirrorKey(); // the key of the position flipped left to right
+
+    /*---------------------------------------------------------------------------
+    | long canonicalKey()                                                       |
+    |---------------------------------------------------------------------------|
+    | returns long: The same number for a position and its mirror image, the    |
+    |               smaller of key() and mirrorKey(). Both play the same, with  |
+    |               column c of one being column width - 1 - c of the other,    |
+    |               so caches keep one entry for the two of them.               |
+    ---------------------------------------------------------------------------*/
+    default long canonicalKey() {
+        return Math.min(key(), mirrorKey());
+    }
+
+    boolean isWinningMove(int col); // dropping into the column wins for the player to move
+
+    boolean lastMoveWins(int col); // the last disc, dropped in the column, won
+
+    int cell(int row, int col); // 0 or 1 for the player owning the cell, -1 if empty
+
+    /*---------------------------------------------------------------------------
+    | void toCharBoard()                                                        |
+    |---------------------------------------------------------------------------|
+    | gameBoard: A height x width board that gets overwritten.                  |
+    | firstChip: The chip shown for player 0.                                   |
+    | secondChip: The chip shown for player 1.                                  |
+    |---------------------------------------------------------------------------|
+    | This program is the adapter to the old char board. Row 0 of the char      |
+    | board is the top row, like printBoard expects.                            |
+    ---------------------------------------------------------------------------*/
+    default void toCharBoard(char[][] gameBoard, char firstChip, char secondChip) {
+        for (int row = 0; row < height(); row++) {
+            for (int col = 0; col < width(); col++) {
+                int owner = cell(height() - 1 - row, col);
+                gameBoard[row][col] = owner == 0 ? firstChip : owner == 1 ? secondChip : ' ';
+            }
+        }
+    }
+
+    /*---------------------------------------------------------------------------
+    | void fromCharBoard()                                                      |
+    |---------------------------------------------------------------------------|
+    | gameBoard: A height x width board with row 0 at the top.                  |
+    | firstChip: The chip of player 0.                                          |
+    | secondChip: The chip of player 1.                                         |
+    |---------------------------------------------------------------------------|
+    | This program is the other half of the adapter: it overwrites this board   |
+    | with the chips of a char board.                                           |
+    ---------------------------------------------------------------------------*/
+    void fromCharBoard(char[][] gameBoard, char firstChip, char secondChip);
+
+    boolean isFull();
+
+    int moves(); // how many discs are on the board
+
+    default int playerToMove() {
+        return moves() & 1;
+    }
+}
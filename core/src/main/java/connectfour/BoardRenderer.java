@@ -0,0 +1,244 @@
+package connectfour;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Prints boards by building the whole frame in one reusable byte array and
+ * writing it with a single write and flush.
+ *
+ * The board's lines, borders and column numbers never change, so they are laid
+ * out once when the renderer is made and only the cells are filled in on every
+ * print. Printing does not allocate. There are three modes:
+ *
+ *   FULL        the classic board with borders and row letters
+ *   ANSI_DIFF   draws the classic board once at the top of the terminal, keeps
+ *               it there with a scroll region, and after that only moves the
+ *               cursor to the cells that changed and redraws them
+ *   COMPACT     one plain line per row ('.' for empty) and a blank line, for
+ *               logs and files
+ *
+ * A renderer remembers what it printed last, so it is only used by one thread.
+ */
+public class BoardRenderer {
+
+    /** How boards are printed. */
+    public enum Mode { FULL, ANSI_DIFF, COMPACT }
+
+    // constants
+    private static final byte EMPTY_COMPACT = '.';
+    private static final byte[] CLEAR_SCREEN = ascii("\033[H\033[2J");
+    private static final byte[] SAVE_CURSOR = ascii("\0337");
+    private static final byte[] RESTORE_CURSOR = ascii("\0338");
+    private static final int MAX_MOVE_BYTES = 16; // "\033[<line>;<col>H" plus the chip
+
+    // variables
+    private final int rows;
+    private final int cols;
+    private final Mode mode;
+    private final byte[] frame; // the classic board with the current cells filled in
+    private final int[] cellOffsets; // where every cell is in frame, row 0 = top row
+    private final int[] cellLines; // 1-based terminal line of every cell in ANSI_DIFF mode
+    private final int[] cellColumns; // 1-based terminal column of every cell in ANSI_DIFF mode
+    private final int frameLines;
+    private final byte[] cells; // the board being printed
+    private final byte[] shown; // the cells on the terminal in ANSI_DIFF mode
+    private final byte[] buffer; // escape codes and compact frames are built here
+    private boolean drawn; // whether ANSI_DIFF mode has drawn the whole board yet
+
+    /*---------------------------------------------------------------------------
+    | BoardRenderer()                                                           |
+    |---------------------------------------------------------------------------|
+    | rows: How many rows the boards have.                                      |
+    | cols: How many columns the boards have.                                   |
+    | mode: How boards are printed.                                             |
+    ---------------------------------------------------------------------------*/
+    public BoardRenderer(int rows, int cols, Mode mode) {
+        // variables
+        StringBuilder layout = new StringBuilder();
+        String border = "  " + "-".repeat(4 * cols + 1) + "\n";
+        int lineStart;
+
+        this.rows = rows;
+        this.cols = cols;
+        this.mode = mode;
+        this.cellOffsets = new int[rows * cols];
+        this.cellLines = new int[rows * cols];
+        this.cellColumns = new int[rows * cols];
+        this.cells = new byte[rows * cols];
+        this.shown = new byte[rows * cols];
+
+        // lay out the classic board once, remembering where the cells go
+        layout.append(border);
+        for (int row = 0; row < rows; row++) {
+            lineStart = layout.length();
+            layout.append((char) ('A' + row)).append(' ');
+            for (int col = 0; col < cols; col++) {
+                layout.append("| ");
+                cellOffsets[row * cols + col] = layout.length();
+                cellLines[row * cols + col] = 2 + 2 * row;
+                cellColumns[row * cols + col] = layout.length() - lineStart + 1;
+                layout.append("  ");
+            }
+            layout.append("|\n").append(border);
+        }
+        layout.append("  ");
+        for (int i = 1; i <= cols; i++) {
+            layout.append("  ").append(i).append(' ');
+        }
+        this.frame = ascii(layout.toString());
+        this.frameLines = 2 * rows + 2;
+
+        this.buffer = new byte[Math.max(rows * (cols + 1) + 1,
+                CLEAR_SCREEN.length + frame.length + 2 * MAX_MOVE_BYTES + rows * cols * MAX_MOVE_BYTES)];
+    }
+
+    /*---------------------------------------------------------------------------
+    | void render()                                                             |
+    |---------------------------------------------------------------------------|
+    | gameBoard: The board, row 0 at the top, ' ' for an empty cell.            |
+    | out: Where the board is printed.                                          |
+    ---------------------------------------------------------------------------*/
+    public void render(char[][] gameBoard, PrintStream out) {
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < cols; col++) {
+                cells[row * cols + col] = (byte) gameBoard[row][col];
+            }
+        }
+        flush(out);
+    }
+
+    /*---------------------------------------------------------------------------
+    | void render()                                                             |
+    |---------------------------------------------------------------------------|
+    | gameBoard: The board. The renderer must have its rows and columns.        |
+    | firstChip: The chip shown for player 0.                                   |
+    | secondChip: The chip shown for player 1.                                  |
+    | out: Where the board is printed.                                          |
+    ---------------------------------------------------------------------------*/
+    public void render(Board gameBoard, char firstChip, char secondChip, PrintStream out) {
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < cols; col++) {
+                int owner = gameBoard.cell(rows - 1 - row, col);
+                cells[row * cols + col] = (byte) (owner == 0 ? firstChip : owner == 1 ? secondChip : ' ');
+            }
+        }
+        flush(out);
+    }
+
+    /*---------------------------------------------------------------------------
+    | void finish()                                                             |
+    |---------------------------------------------------------------------------|
+    | out: Where the boards were printed.                                       |
+    |---------------------------------------------------------------------------|
+    | This program gives the whole terminal back after ANSI_DIFF mode, so the   |
+    | next print draws the whole board again. Other modes do nothing.           |
+    ---------------------------------------------------------------------------*/
+    public void finish(PrintStream out) {
+        if (mode == Mode.ANSI_DIFF && drawn) {
+            out.print("\033[r\n");
+            out.flush();
+            drawn = false;
+        }
+    }
+
+    private void flush(PrintStream out) {
+        // variables
+        int length = 0;
+
+        switch (mode) {
+            case FULL:
+                fillFrame();
+                out.write(frame, 0, frame.length);
+                break;
+            case COMPACT:
+                for (int row = 0; row < rows; row++) {
+                    for (int col = 0; col < cols; col++) {
+                        byte cell = cells[row * cols + col];
+                        buffer[length++] = cell == ' ' ? EMPTY_COMPACT : cell;
+                    }
+                    buffer[length++] = '\n';
+                }
+                buffer[length++] = '\n';
+                out.write(buffer, 0, length);
+                break;
+            case ANSI_DIFF:
+                if (!drawn) {
+                    // whole board at the top, everything else scrolls underneath it
+                    fillFrame();
+                    length = put(CLEAR_SCREEN, length);
+                    System.arraycopy(frame, 0, buffer, length, frame.length);
+                    length += frame.length;
+                    buffer[length++] = '\n';
+                    length = putEscape(frameLines + 1, 0, 'r', length);
+                    length = putEscape(frameLines + 1, 1, 'H', length);
+                    System.arraycopy(cells, 0, shown, 0, cells.length);
+                    drawn = true;
+                } else {
+                    for (int i = 0; i < cells.length; i++) {
+                        if (cells[i] != shown[i]) {
+                            if (length == 0) {
+                                length = put(SAVE_CURSOR, length);
+                            }
+                            length = putEscape(cellLines[i], cellColumns[i], 'H', length);
+                            buffer[length++] = cells[i];
+                            shown[i] = cells[i];
+                        }
+                    }
+                    if (length == 0) {
+                        return; // nothing changed
+                    }
+                    length = put(RESTORE_CURSOR, length);
+                }
+                out.write(buffer, 0, length);
+                break;
+        }
+        out.flush();
+    }
+
+    private void fillFrame() {
+        for (int i = 0; i < cells.length; i++) {
+            frame[cellOffsets[i]] = cells[i];
+        }
+    }
+
+    private int put(byte[] bytes, int length) {
+        System.arraycopy(bytes, 0, buffer, length, bytes.length);
+        return length + bytes.length;
+    }
+
+    // writes "\033[<first>;<second><command>", leaving out the second number if it is 0
+    private int putEscape(int first, int second, char command, int length) {
+        buffer[length++] = 033;
+        buffer[length++] = '[';
+        length = putNumber(first, length);
+        buffer[length++] = ';';
+        if (second > 0) {
+            length = putNumber(second, length);
+        }
+        buffer[length++] = (byte) command;
+        return length;
+    }
+
+    private int putNumber(int number, int length) {
+        // variables
+        int digits = 1;
+
+        for (int rest = number / 10; rest > 0; rest /= 10) {
+            digits++;
+        }
+        for (int i = length + digits - 1; i >= length; i--) {
+            buffer[i] = (byte) ('0' + number % 10);
+            number /= 10;
+        }
+        return length + digits;
+    }
+
+    private static byte[] ascii(String text) {
+        return text.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    public Mode mode() {
+        return mode;
+    }
+}
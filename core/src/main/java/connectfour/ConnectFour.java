@@ -0,0 +1,814 @@
+/**
+ * @author Jessica Lu 
+ * @date 01/29/2021 
+ * 
+ * Connect Four Game
+ * This is a program that implements the classic Connect Four game.
+ * Players play against an AI opponent.
+ * User profiles are created to save all-time player W/L statistics
+ */
+
+/*-----------------------------------------------------------------------------------
+|                                     CHANGELOG                                     |
+| jan. 29th, 2021:                                                                  |
+|   - added user opening file thing.                                                |
+|   - user is forced to enter something that starts with 'n' or 'r'.                |
+|                                                                                   |
+| feb. 1st, 2021:                                                                   |
+|   - finished all of opening file                                                  |
+|       - both new and returning player                                             |
+|   - set up board                                                                  |
+|   - printing board                                                                |
+|                                                                                   |
+| feb. 2nd, 2021:                                                                   |
+|   - created player turn                                                           |
+|   - check if game over (unfinished, none of the 3 work)                           |
+|   - created very simple AI (random column 1 to 7)                                 |
+|   - outputs the winner (does not work with ties)                                  |
+|   - *** things to work on: checking if the game is over!                          |
+|                                                                                   |
+| feb. 3rd, 2021:                                                                   |
+|   - quite literally everything else!                                              |
+-----------------------------------------------------------------------------------*/
+
+package connectfour;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+public class ConnectFour {
+
+    // variables
+    static InputPipeline input; // the player's lines, read on their own thread once main starts
+    static final char userChip = Rules.USER_CHIP;
+    static final char botChip = Rules.BOT_CHIP;
+    static final int totalRows = Integer.getInteger("connectfour.rows", BitBoard.HEIGHT);
+    static final int totalCols = Integer.getInteger("connectfour.cols", BitBoard.WIDTH);
+    static final int connectN = Integer.getInteger("connectfour.connect", BitBoard.CONNECT); // how many in a row win
+    static BoardRenderer renderer = new BoardRenderer(totalRows, totalCols,
+            BoardRenderer.Mode.valueOf(System.getProperty("connectfour.render", "full").toUpperCase(Locale.ROOT)));
+    static TranspositionTable table = new TranspositionTable(Long.getLong("connectfour.ttMegabytes", 64) << 20);
+    static final long botTimeMillis = Long.getLong("connectfour.timeMs", 0); // the bot's budget per move, 0 for none
+    static ParallelSearch engine = new ParallelSearch(Integer.getInteger("connectfour.threads", 1),
+            SearchEngine.depthFromProperties(botTimeMillis), botTimeMillis, table);
+    static Solver solver = new Solver(table);
+    static final int solveEmptyCells = botTimeMillis > 0 ? -1 // the solver has no deadline, the search solves in time
+            : Integer.getInteger("connectfour.solveEmpty", Solver.DEFAULT_EMPTY_CELLS);
+    static final long botDelayMillis = Long.getLong("connectfour.botDelayMs", 1000); // only to make the bot watchable
+    static final boolean showSearchStats = Boolean.getBoolean("connectfour.searchStats");
+    static Ponderer ponderer; // null unless connectfour.ponder is on
+    static OpeningBook book; // null if there is no opening book file
+    static final int statsCapacity = Integer.getInteger("connectfour.statsCapacity", StatsStore.DEFAULT_CAPACITY);
+    static StatsStore stats;
+    static GameLog gameLog; // null if games are not logged
+
+    public static void main(String[] args) {
+        // variables and constants
+        int player;
+        Board gameBoard = Board.create(totalCols, totalRows, connectN);
+        GameResult gameResult = GameResult.NOT_OVER;
+        int colNum;
+        long thinkStart;
+        boolean playAgain;
+        StringBuilder gameMoves = new StringBuilder(); // the game as a move string, for the game log
+
+        try {
+            input = InputPipeline.fromProperties();
+        } catch (IOException e) {
+            System.out.println("Uh oh! " + e);
+            return;
+        }
+        if (Boolean.getBoolean("connectfour.ponder")) {
+            // thinks on the player's time
+            ponderer = new Ponderer(SearchEngine.depthFromProperties(botTimeMillis), botTimeMillis, table);
+        }
+
+        loadOpeningBook();
+
+        // open the stats of all players
+        try {
+            stats = StatsStore.open(Paths.get(System.getProperty("connectfour.stats", "players.stats")), statsCapacity);
+        } catch (IOException e) {
+            System.out.println("Uh oh! " + e);
+            return;
+        }
+
+        // open the game log. the game can go on without it
+        try {
+            gameLog = GameLog.fromProperties();
+        } catch (IOException e) {
+            System.out.println("Uh oh! " + e);
+        }
+
+        player = openPlayerFile(); // ask user if they are new or returning and create/open their record.
+
+        outputUserStats(player, gameResult);
+
+        // output the user and bot chip character.
+        System.out.println("Your chip is: " + userChip + ".");
+        System.out.println("The computer's chip is: " + botChip + ".");
+        if (totalCols != BitBoard.WIDTH || totalRows != BitBoard.HEIGHT || connectN != BitBoard.CONNECT) {
+            System.out.println("This game is " + connectN + " in a row on a board with " + totalCols + " columns and "
+                    + totalRows + " rows.");
+        }
+        System.out.println();
+
+        // play through at least once. loop if the user wants to play again
+        do {
+            gameBoard.reset(); // reset/set up the board (the board becomes empty)
+            gameMoves.setLength(0);
+
+            printBoard(gameBoard);
+
+            // loop until game ends
+            do {
+                colNum = playerTurn(gameBoard);
+                gameMoves.append((char) ('0' + colNum));
+
+                gameResult = checkIfGameOver(gameBoard, colNum, userChip); // check if either the user won or the game tied
+
+                printBoard(gameBoard);
+
+                // only run if the game did not end
+                if (!gameResult.isOver()) {
+                    // bot's turn. the pauses are only for show, the time spent thinking counts towards the second one
+                    pause(botDelayMillis);
+                    System.out.println("\n\nNow it's the computer's turn!");
+                    thinkStart = System.nanoTime();
+                    colNum = botTurn(gameBoard);
+                    gameMoves.append((char) ('0' + colNum));
+                    pause(botDelayMillis - TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - thinkStart));
+
+                    printBoard(gameBoard);
+
+                    gameResult = checkIfGameOver(gameBoard, colNum, botChip); // check if either the computer won or the game tied
+
+                    // search the player's replies while they think
+                    if (!gameResult.isOver() && ponderer != null) {
+                        ponderer.start(gameBoard, ConnectFour::botSearches);
+                    }
+                }
+            } while (!gameResult.isOver());
+
+            // the player may have won while the bot was pondering
+            if (ponderer != null) {
+                ponderer.cancel();
+            }
+
+            outputGameResult(gameResult);
+
+            outputUserStats(player, gameResult);
+
+            logGame(player, gameResult, gameMoves);
+
+            playAgain = askUserPlayAgain();
+
+        } while (playAgain);
+
+        if (ponderer != null) {
+            ponderer.close();
+        }
+        renderer.finish(System.out);
+    }
+
+    /*---------------------------------------------------------------------------
+    | void pause()                                                              |
+    |---------------------------------------------------------------------------|
+    | millis: How long to wait. Nothing happens if it is 0 or less.             |
+    ---------------------------------------------------------------------------*/
+    static void pause(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            TimeUnit.MILLISECONDS.sleep(millis);
+        } catch (InterruptedException ie) {
+            System.out.println("Uh oh! " + ie);
+        }
+    }
+
+    /*---------------------------------------------------------------------------
+    | int openPlayerFile()                                                      |
+    |---------------------------------------------------------------------------|
+    | returns int: The player's record number in the stats store.               |
+    |---------------------------------------------------------------------------|
+    | This program opens the player's record. If they are a new player, a       |
+    | record is created for them. If they are returning, their old record is    |
+    | opened, or their old "<name>.txt" file is copied into the store the first |
+    | time. If neither can be found, the program loops and asks if they are new |
+    | or returning.                                                             |
+    ---------------------------------------------------------------------------*/
+    public static int openPlayerFile() {
+        // variables and constants
+        boolean fileExists;
+        boolean newPlayer;
+        String name;
+        int player = -1;
+        final String fileNameEnd = ".txt";
+        File textFile;
+
+        // ask user to enter if they are new or returning and open their record.
+        fileExists = false;
+        do {
+            try {
+                // ask user if they are new or returning
+                System.out.println("Are you a new or returning player?");
+                newPlayer = forceCorrectInputPlayerType();
+
+                // ask user for their name to open their record
+                System.out.print("Enter your name: ");
+                name = nextInput().text();
+                textFile = new File(name + fileNameEnd);
+
+                if (newPlayer) {
+                    // make all the wins, losses, and ties = 0.
+                    player = stats.findOrCreate(name);
+                    stats.setStats(player, 0, 0, 0);
+                    fileExists = true;
+                } else {
+                    player = stats.find(name);
+
+                    // players from before the stats store still have their text file
+                    if (player < 0 && textFile.isFile()) {
+                        player = stats.importTextFile(name, textFile.toPath());
+                    }
+                    fileExists = player >= 0;
+                }
+
+                // output confirmation message if the record exists
+                if (fileExists) {
+                    System.out.println("Okay, your file has been opened!");
+                    System.out.println();
+                } else {
+                    System.out.println("Uh oh! Your file can't be found!");
+                    System.out.println("Let's try again, shall we?");
+                    System.out.println();
+                }
+            } catch (IOException | IllegalArgumentException e) {
+                System.out.println("Uh oh! " + e.getMessage());
+                System.out.println("Let's try again, shall we?");
+                System.out.println();
+            }
+        } while (!fileExists);
+        return player;
+    }
+
+    /*---------------------------------------------------------------------------
+    | void logGame()                                                            |
+    |---------------------------------------------------------------------------|
+    | player: The player's record number in the stats store.                    |
+    | gameResult: How the game ended.                                           |
+    | moves: The game as a move string.                                         |
+    |---------------------------------------------------------------------------|
+    | This program adds the finished game to the game log, if there is one.     |
+    ---------------------------------------------------------------------------*/
+    public static void logGame(int player, GameResult gameResult, CharSequence moves) {
+        if (gameLog == null) {
+            return;
+        }
+        try {
+            gameLog.append(player, gameResult, moves);
+        } catch (IOException e) {
+            System.out.println("Uh oh! " + e);
+        }
+    }
+
+    /*---------------------------------------------------------------------------
+    | void outputUserStats()                                                    |
+    |---------------------------------------------------------------------------|
+    | player: The player's record number in the stats store.                    |
+    | gameResult: The game result (user win, game tie, bot win, or not over     |
+    |             when the stats are only shown).                               |
+    |---------------------------------------------------------------------------|
+    | This program adds the game to the user's stats and outputs them. Only     |
+    | the one counter that changed is written.                                  |
+    ---------------------------------------------------------------------------*/
+    public static void outputUserStats(int player, GameResult gameResult) {
+        // variables
+        int wins;
+        int losses;
+        int ties;
+        int per = 100;
+        double totalGames;
+        double winPercent, lossPercent;
+        long start = Metrics.start();
+
+        // update the wins/losses/ties
+        stats.recordResult(player, gameResult);
+        wins = stats.wins(player);
+        losses = stats.losses(player);
+        ties = stats.ties(player);
+        Metrics.stop(Metrics.statsIo, start); // only the store, not the printing
+
+        // calculate win and loss percent
+        totalGames = wins + losses + ties;
+        if (totalGames > 0) {
+            winPercent = wins / totalGames * per;
+            lossPercent = losses / totalGames * per;
+        } else {
+            winPercent = 0;
+            lossPercent = 0;
+        }
+
+        // output w/l/t and percent of wins and losses
+        System.out.println("----- Your Current Stats -----");
+        System.out.printf("Wins: %d (%.1f%%)%n", wins, winPercent);
+        System.out.printf("Losses: %d (%.1f%%)%n", losses, lossPercent);
+        System.out.println("Ties: " + ties);
+        System.out.println();
+    }
+
+    /*---------------------------------------------------------------------------
+    | char[][] setUpBoard()                                                     |
+    |---------------------------------------------------------------------------|
+    | returns char[][]: The empty game board (nothing on the board).            |
+    |---------------------------------------------------------------------------|
+    | This program sets up the Connect Four game board. The game board starts   |
+    | off completely empty.                                                     |
+    ---------------------------------------------------------------------------*/
+    public static char[][] setUpBoard() {
+        // variables and constants
+        char[][] gameBoard = new char[totalRows][totalCols]; // game board
+
+        // set full game board to false (no pieces are on the board)
+        for (int i = 0; i < totalRows; i++) {
+            for (int j = 0; j < totalCols; j++) {
+                gameBoard[i][j] = ' ';
+            }
+        }
+        return gameBoard;
+    }
+
+    /*---------------------------------------------------------------------------
+    | void printBoard()                                                         |
+    |---------------------------------------------------------------------------|
+    | gameBoard: The Connect Four game board.                                   |
+    |---------------------------------------------------------------------------|
+    | This program prints the Connect Four board.                               |
+    ---------------------------------------------------------------------------*/
+    public static void printBoard(char[][] gameBoard) {
+        renderer.render(gameBoard, System.out); // the whole frame goes out in one write
+    }
+
+    /*---------------------------------------------------------------------------
+    | void printBoard()                                                         |
+    |---------------------------------------------------------------------------|
+    | gameBoard: The Connect Four board.                                        |
+    |---------------------------------------------------------------------------|
+    | This program prints the board straight from its cells, so it looks        |
+    | exactly the same as a char board.                                         |
+    ---------------------------------------------------------------------------*/
+    public static void printBoard(Board gameBoard) {
+        renderer.render(gameBoard, userChip, botChip, System.out);
+    }
+
+    /*---------------------------------------------------------------------------
+    | void playerTurn()                                                         |
+    |---------------------------------------------------------------------------|
+    | returns int: The column number the chip ended up in.                      |
+    |---------------------------------------------------------------------------|
+    | gameBoard: The Connect Four board.                                        |
+    |---------------------------------------------------------------------------|
+    | This program is the player's turn.                                        |
+    ---------------------------------------------------------------------------*/
+    public static int playerTurn(Board gameBoard) {
+        // variables
+        int colNum;
+
+        // method for user to enter a number 1 to totalCols
+        colNum = chooseColumn();
+
+        // check which row the piece goes to
+        return putChipInBoard(gameBoard, colNum, userChip);
+    }
+
+    /*---------------------------------------------------------------------------
+    | GameResult checkIfGameOver()                                              |
+    |---------------------------------------------------------------------------|
+    | returns GameResult: The game result (a win, a tie, or game not over)      |
+    |---------------------------------------------------------------------------|
+    | gameBoard: The game board.                                                |
+    | chip: Either the user chip or bot chip, which is either a 'O' or 'X'.     |
+    |---------------------------------------------------------------------------|
+    | This program checks if the game is over.                                  |
+     ---------------------------------------------------------------------------*/
+    public static GameResult checkIfGameOver(char[][] gameBoard, char chip) {
+        // variables
+        long start = Metrics.start();
+        boolean hasWinner = false;
+        int piecesOnBoard = 0;
+        GameResult gameResult;
+
+        // check horizontal
+        for (int row = 0; row < totalRows; row++) {
+            for (int col = 0; col <= totalCols - connectN; col++) {
+                if (connected(gameBoard, row, col, 0, 1, chip)) {
+                    hasWinner = true;
+                    break;
+                }
+            }
+        }
+
+        // check vertical
+        for (int col = 0; col < totalCols; col++) {
+            for (int row = 0; row <= totalRows - connectN; row++) {
+                if (connected(gameBoard, row, col, 1, 0, chip)) {
+                    hasWinner = true;
+                    break;
+                }
+            }
+        }
+
+        // check diagonal #1
+        for (int row = totalRows - 1; row >= connectN - 1; row--) {
+            for (int col = 0; col <= totalCols - connectN; col++) {
+                if (connected(gameBoard, row, col, -1, 1, chip)) {
+                    hasWinner = true;
+                    break;
+                }
+            }
+        }
+
+        // check diagonal #2
+        for (int row = totalRows - 1; row >= connectN - 1; row--) {
+            for (int col = totalCols - 1; col >= connectN - 1; col--) {
+                if (connected(gameBoard, row, col, -1, -1, chip)) {
+                    hasWinner = true;
+                    break;
+                }
+            }
+        }
+
+        // check for tie (every slot on the board has a piece)
+        for (int i = 0; i < totalRows; i++) {
+            for (int j = 0; j < totalCols; j++) {
+                if (gameBoard[i][j] == userChip || gameBoard[i][j] == botChip) {
+                    piecesOnBoard++;
+                }
+            }
+        }
+
+        // get game result
+        if (hasWinner) {
+            if (chip == userChip) {
+                gameResult = GameResult.USER_WIN;
+            } else {
+                gameResult = GameResult.BOT_WIN;
+            }
+        } else if (piecesOnBoard == totalRows * totalCols) {
+            gameResult = GameResult.TIE;
+        } else {
+            gameResult = GameResult.NOT_OVER;
+        }
+        Metrics.stop(Metrics.checkIfGameOver, start);
+        return gameResult;
+    }
+
+    /*---------------------------------------------------------------------------
+    | boolean connected()                                                       |
+    |---------------------------------------------------------------------------|
+    | returns boolean: True if connectN chips in a row, starting at the slot,   |
+    |                  are all the chip.                                        |
+    |---------------------------------------------------------------------------|
+    | gameBoard: The game board.                                                |
+    | row, col: The first slot of the line.                                     |
+    | rowStep, colStep: How to get from one slot of the line to the next.       |
+    | chip: Either the user chip or bot chip, which is either a 'O' or 'X'.     |
+    ---------------------------------------------------------------------------*/
+    static boolean connected(char[][] gameBoard, int row, int col, int rowStep, int colStep, char chip) {
+        for (int i = 0; i < connectN; i++) {
+            if (gameBoard[row + i * rowStep][col + i * colStep] != chip) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /*---------------------------------------------------------------------------
+    | GameResult checkIfGameOver()                                              |
+    |---------------------------------------------------------------------------|
+    | returns GameResult: The game result (a win, a tie, or game not over)      |
+    |---------------------------------------------------------------------------|
+    | gameBoard: The game board.                                                |
+    | colNum: The column number (from 1) the chip was just put in.              |
+    | chip: Either the user chip or bot chip, which is either a 'O' or 'X'.     |
+    |---------------------------------------------------------------------------|
+    | This program checks if the last move ended the game (see Rules).          |
+    ---------------------------------------------------------------------------*/
+    public static GameResult checkIfGameOver(Board gameBoard, int colNum, char chip) {
+        return Rules.checkIfGameOver(gameBoard, colNum, chip);
+    }
+
+    /*---------------------------------------------------------------------------
+    | void botTurn()                                                            |
+    |---------------------------------------------------------------------------|
+    | returns int: The column number the chip ended up in.                      |
+    |---------------------------------------------------------------------------|
+    | gameBoard: The game board.                                                |
+    |---------------------------------------------------------------------------|
+    | This program is the bot turn. The search engine picks the column, so it   |
+    | is never a full one.                                                      |
+    ---------------------------------------------------------------------------*/
+    public static int botTurn(Board gameBoard) {
+        // variables
+        long start = Metrics.start();
+        int colNum;
+
+        // update the board with the computer piece (the column the engine picked)
+        colNum = putChipInBoard(gameBoard, chooseBotColumn(gameBoard) + 1, botChip);
+        Metrics.stop(Metrics.botTurn, start);
+        return colNum;
+    }
+
+    /*---------------------------------------------------------------------------
+    | int chooseBotColumn()                                                     |
+    |---------------------------------------------------------------------------|
+    | returns int: The column (from 0) the bot plays.                           |
+    |---------------------------------------------------------------------------|
+    | gameBoard: The game board, with the bot to move.                          |
+    |---------------------------------------------------------------------------|
+    | This program looks the position up in the opening book first. If it is    |
+    | not in the book, the search engine picks the column, unless there are     |
+    | few enough empty cells left to solve the position to the end, or the      |
+    | position was already searched while the player was thinking.              |
+    ---------------------------------------------------------------------------*/
+    public static int chooseBotColumn(Board gameBoard) {
+        // variables
+        SearchResult result = ponderer == null ? null : ponderer.take(gameBoard); // stops the pondering either way
+        int bookMove = book == null ? -1 : book.bestMove(gameBoard);
+
+        Metrics.count(Metrics.botMoves, 1);
+        if (bookMove >= 0 && gameBoard.canPlay(bookMove)) {
+            Metrics.count(Metrics.bookMoves, 1);
+            if (showSearchStats) {
+                System.out.println("\nThe computer played column " + (bookMove + 1) + " from its opening book.");
+            }
+            return bookMove;
+        }
+
+        if (gameBoard.size() - gameBoard.moves() <= solveEmptyCells) {
+            Solution solution = solver.solve(gameBoard);
+            Metrics.count(Metrics.solvedMoves, 1);
+            Metrics.count(Metrics.nodes, solution.nodes);
+            if (showSearchStats) {
+                System.out.println("\nThe computer solved the position: " + solution);
+            }
+            return solution.bestMove;
+        }
+
+        if (result != null) {
+            Metrics.count(Metrics.ponderedMoves, 1);
+            if (showSearchStats) {
+                System.out.println("\nThe computer had already searched this while you were thinking: " + result);
+            }
+            return result.bestMove;
+        }
+
+        result = engine.search(gameBoard);
+        Metrics.count(Metrics.nodes, result.nodes);
+        if (ponderer != null) {
+            ponderer.searched(result); // with a time budget, how deep pondering has to get
+        }
+        if (showSearchStats) {
+            System.out.println("\nThe computer searched " + result);
+            System.out.println("Transposition table: " + table);
+        }
+        return result.bestMove;
+    }
+
+    /*---------------------------------------------------------------------------
+    | boolean botSearches()                                                     |
+    |---------------------------------------------------------------------------|
+    | returns boolean: True if chooseBotColumn would search the position, not   |
+    |                  play a book move or solve it.                            |
+    |---------------------------------------------------------------------------|
+    | gameBoard: A position with the bot to move.                               |
+    ---------------------------------------------------------------------------*/
+    static boolean botSearches(Board gameBoard) {
+        int bookMove = book == null ? -1 : book.bestMove(gameBoard);
+        return !(bookMove >= 0 && gameBoard.canPlay(bookMove)) && gameBoard.size() - gameBoard.moves() > solveEmptyCells;
+    }
+
+    /*---------------------------------------------------------------------------
+    | void loadOpeningBook()                                                    |
+    |---------------------------------------------------------------------------|
+    | This program maps the opening book file (connectfour.book, opening.book   |
+    | by default), or loads the one packed in the jar. Without a book the bot   |
+    | just searches.                                                            |
+    ---------------------------------------------------------------------------*/
+    public static void loadOpeningBook() {
+        try {
+            book = OpeningBook.loadDefault();
+        } catch (IOException e) {
+            System.out.println("Uh oh! " + e);
+        }
+    }
+
+    /*---------------------------------------------------------------------------
+    | void outputGameResult()                                                   |
+    |---------------------------------------------------------------------------|
+    | gameResult: The game result (user win, game tie, bot win).                |
+    |---------------------------------------------------------------------------|
+    | This program outputs the winner.                                          |
+    ---------------------------------------------------------------------------*/
+    public static void outputGameResult(GameResult gameResult) {
+        // output who won
+        System.out.println("\n");
+        if (gameResult == GameResult.BOT_WIN) {
+            System.out.println("Aww. The bot won! Better luck next time!");
+        } else if (gameResult == GameResult.USER_WIN) {
+            System.out.println("Yay, you won! GG.");
+        } else {
+            System.out.println("Woah, a tie happened!");
+        }
+    }
+
+    /*---------------------------------------------------------------------------
+    | boolean askUserPlayAgain()                                                |
+    |---------------------------------------------------------------------------|
+    | returns boolean: True if the user wants to play again, false if the user  |
+    |                  does not.                                                |
+    |---------------------------------------------------------------------------|
+    | This program outputs the user's game stats.                               |
+    ---------------------------------------------------------------------------*/
+    public static boolean askUserPlayAgain() {
+        // variables
+        boolean playAgain;
+        char answer;
+        boolean badInput;
+
+        System.out.println("Do you want to play again?");
+
+        // force user to enter something that starts with yes or no
+        do {
+            System.out.print("Enter 'yes' or 'no': ");
+            answer = nextInput().letter();
+
+            badInput = !(answer == 'y' || answer == 'n');
+
+            // output error message if input doesn't start with 'y' or 'n'
+            if (badInput) {
+                System.out.println("That doesn't look like yes or no!");
+            }
+        } while (badInput);
+
+        // depending on user input, boolean playAgain gets a value
+        if (answer == 'y') {
+            System.out.println("Okay! A new game will start right now.");
+            playAgain = true;
+        } else {
+            System.out.println("Aww, well have a good day!");
+            playAgain = false;
+        }
+
+        System.out.println();
+        System.out.println("------------------------------------------");
+
+        return playAgain;
+    }
+
+    /*---------------------------------------------------------------------------
+    | boolean forceCorrectInputPlayerType()                                     |
+    |---------------------------------------------------------------------------|
+    | returns boolean: The type of player; new or returning. If new, boolean is |
+    |                  true. If returning, boolean is false.                    |
+    |---------------------------------------------------------------------------|
+    | This program forces the user to enter something that starts with 'n' or   |
+    | 'r', signifying if the user is new or returning.                          |
+    ---------------------------------------------------------------------------*/
+    public static boolean forceCorrectInputPlayerType() {
+        // variables
+        char answer;
+        boolean badInput;
+        boolean newPlayer; // true if user is new, false if user is returning
+
+        // force user to enter new or returning
+        do {
+            System.out.print("Enter 'new' or 'returning': ");
+            answer = nextInput().letter();
+            badInput = !(answer == 'n' || answer == 'r');
+
+            // output error message if input doesn't start with 'n' or 'r'
+            if (badInput) {
+                System.out.println("That doesn't look like 'new' or returning'!");
+            }
+        } while (badInput);
+
+        // depending on user input, boolean newPlayer gets a value
+        if (answer == 'n') {
+            newPlayer = true;
+            System.out.println("Okay! A new file will be opened for you.");
+        } else {
+            newPlayer = false;
+            // **** don't print anything out. print it out when the file is actually opened
+            // do this just in case the user says they are returning but their file cannot be found.
+        }
+        return newPlayer;
+    }
+
+    /*---------------------------------------------------------------------------
+    | int chooseColumn()                                                        |
+    |---------------------------------------------------------------------------|
+    | returns int: The column number that the user chose.                       |
+    |---------------------------------------------------------------------------|
+    | This program forces the user to enter a column integer from 1 to          |
+    | totalCols.                                                                |
+    ---------------------------------------------------------------------------*/
+    public static int chooseColumn() {
+        // variables
+        int colNum = -1;
+        InputPipeline.Event event;
+
+        // force user to enter a column number (integer between 1 and totalCols)
+        System.out.println("\n\nWhat column do you want to drop your piece in?");
+        do {
+            System.out.print("Enter a number from 1 to " + totalCols + ": ");
+            event = nextInput();
+            if (event.kind() != InputPipeline.Event.Kind.MOVE) {
+                System.out.println("Uh oh! That doesn't seem to be an integer!");
+            } else {
+                colNum = event.column();
+                if (colNum < 1 || colNum > totalCols) {
+                    System.out.println("Uh oh! That isn't an integer between 1 and " + totalCols + "!");
+                }
+            }
+        } while (colNum < 1 || colNum > totalCols);
+        return colNum;
+    }
+
+    /*---------------------------------------------------------------------------
+    | InputPipeline.Event nextInput()                                           |
+    |---------------------------------------------------------------------------|
+    | returns InputPipeline.Event: The player's next line.                      |
+    |---------------------------------------------------------------------------|
+    | This program waits for the player. If their input has ended there is      |
+    | nobody left to play, so the game says goodbye and the program exits.      |
+    ---------------------------------------------------------------------------*/
+    static InputPipeline.Event nextInput() {
+        InputPipeline.Event event = input.take();
+        if (event.kind() == InputPipeline.Event.Kind.END) {
+            renderer.finish(System.out);
+            System.out.println();
+            System.out.println("Aww, well have a good day!");
+            System.exit(0);
+        }
+        return event;
+    }
+
+    /*---------------------------------------------------------------------------
+    | void putChipInBoard()                                                     |
+    |---------------------------------------------------------------------------|
+    | gameBoard: The game board. A new piece will be put in.                    |
+    | colNum: The column number the user chose to put their piece in.           |
+    | chip: Either the user chip or bot chip, which is either a 'O' or 'X'.     |
+    |---------------------------------------------------------------------------|
+    | This program puts the chip into the game board. Nothing is put in if the  |
+    | column is full. The game plays on a Board; the char board is kept as the  |
+    | baseline RulesBenchmark compares the Board with.                          |
+    ---------------------------------------------------------------------------*/
+    public static void putChipInBoard(char[][] gameBoard, int colNum, char chip) {
+        // variables
+        long start = Metrics.start();
+        boolean putChipIn;
+
+        // check for what row the chip gets put into (based on what is empty under and gravity) and put the chip in
+        putChipIn = false;
+        for (int i = 0; i < totalRows; i++) {
+            if (gameBoard[totalRows - i - 1][colNum - 1] == ' ' && !putChipIn) {
+                gameBoard[totalRows - i - 1][colNum - 1] = chip;
+                putChipIn = true;
+            }
+        }
+        Metrics.stop(Metrics.putChipInBoard, start);
+    }
+
+    /*---------------------------------------------------------------------------
+    | int putChipInBoard()                                                      |
+    |---------------------------------------------------------------------------|
+    | returns int: The column number the chip ended up in. This is a different  |
+    |              column than colNum when colNum was full.                     |
+    |---------------------------------------------------------------------------|
+    | gameBoard: The game board. A new piece will be put in.                    |
+    | colNum: The column number the user chose to put their piece in.           |
+    | chip: Either the user chip or bot chip, which is either a 'O' or 'X'.     |
+    |---------------------------------------------------------------------------|
+    | This program puts the chip into the board. The board always drops         |
+    | the chip for the player whose turn it is.                                 |
+    ---------------------------------------------------------------------------*/
+    public static int putChipInBoard(Board gameBoard, int colNum, char chip) {
+        long start = Metrics.start();
+        if (gameBoard.canPlay(colNum - 1)) {
+            gameBoard.drop(colNum - 1);
+            Metrics.stop(Metrics.putChipInBoard, start); // a full column's retry is timed as its own call
+            return colNum;
+        } else if (chip == userChip) {
+            // if that column is full, loop the turn.
+            System.out.println("Uh oh! Column # " + colNum + " is all full! Pick another column.");
+            return playerTurn(gameBoard);
+        }
+        return botTurn(gameBoard);
+    }
+
+}
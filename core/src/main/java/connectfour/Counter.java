@@ -0,0 +1,40 @@
+package connectfour;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A count that many threads can add to at once, like nodes searched.
+ */
+public class Counter implements CounterMXBean {
+
+    // variables
+    private final String name;
+    private final LongAdder count = new LongAdder();
+
+    public Counter(String name) {
+        this.name = name;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public void add(long amount) {
+        count.add(amount);
+    }
+
+    @Override
+    public long getCount() {
+        return count.sum();
+    }
+
+    @Override
+    public void reset() {
+        count.reset();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%-16s count %d", name, getCount());
+    }
+}
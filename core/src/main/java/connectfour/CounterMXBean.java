@@ -0,0 +1,11 @@
+package connectfour;
+
+/**
+ * What JMX clients (jconsole, a monitoring agent) see of a Counter.
+ */
+public interface CounterMXBean {
+
+    long getCount();
+
+    void reset();
+}
@@ -0,0 +1,349 @@
+package connectfour;
+
+import java.util.*;
+
+/**
+ * A heuristic score for positions that are not won or lost yet, for searches
+ * that stop before the end of the game.
+ *
+ * The board is cut into windows: every line of connect cells in a row, down,
+ * or on a diagonal (69 of them on the usual board). A window with discs of
+ * both players can never be won and counts for nothing. Otherwise the player
+ * with discs in it scores:
+ *
+ *   three    for an open three: all cells but one are theirs and the last is empty
+ *   parity   on top of that, if the empty cell is on a row that suits the player:
+ *            rows 1, 3, 5 (counting from 1 at the bottom) for whoever moved first,
+ *            rows 2, 4, 6 for the other player. Late in the game those are the
+ *            threats that the order of moves lets the player fill.
+ *   two      for two cells short, like two in a row with two empty cells
+ *
+ * and every disc in the center column (the two center columns on an even
+ * board) is worth center, since more windows go through it.
+ *
+ * Nothing is recounted for a move. Every cell knows the windows through it,
+ * and a drop or undo only updates those windows (at most 13 on the usual
+ * board) and the running total, so a search can call drop, evaluate and undo
+ * at every node. rescan() scores all the windows of a board from scratch, for
+ * checking and for comparison.
+ */
+public class Evaluator {
+
+    /**
+     * How much each feature is worth. Set with connectfour.eval.two, .three,
+     * .parity and .center, or as "two,three,parity,center" in a strategy spec.
+     */
+    public static final class Weights {
+
+        // constants
+        public static final Weights DEFAULT = new Weights(2, 10, 6, 3);
+
+        // variables
+        public final int two;
+        public final int three;
+        public final int parity;
+        public final int center;
+
+        public Weights(int two, int three, int parity, int center) {
+            this.two = two;
+            this.three = three;
+            this.parity = parity;
+            this.center = center;
+        }
+
+        public static Weights fromProperties() {
+            return new Weights(Integer.getInteger("connectfour.eval.two", DEFAULT.two),
+                    Integer.getInteger("connectfour.eval.three", DEFAULT.three),
+                    Integer.getInteger("connectfour.eval.parity", DEFAULT.parity),
+                    Integer.getInteger("connectfour.eval.center", DEFAULT.center));
+        }
+
+        /*---------------------------------------------------------------------------
+        | Weights parse()                                                           |
+        |---------------------------------------------------------------------------|
+        | returns Weights: The weights in the spec.                                 |
+        |---------------------------------------------------------------------------|
+        | spec: Four numbers, "two,three,parity,center", like "2,10,6,3".           |
+        ---------------------------------------------------------------------------*/
+        public static Weights parse(String spec) {
+            String[] parts = spec.split(",");
+            if (parts.length != 4) {
+                throw new IllegalArgumentException("expected two,three,parity,center weights, got " + spec);
+            }
+            return new Weights(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]), Integer.parseInt(parts[2]),
+                    Integer.parseInt(parts[3]));
+        }
+
+        @Override
+        public String toString() {
+            return two + "," + three + "," + parity + "," + center;
+        }
+    }
+
+    // constants
+    private static final int[][] DIRECTIONS = { {1, 0}, {0, 1}, {1, 1}, {1, -1} }; // column step, row step
+
+    // variables
+    private final int width;
+    private final int height;
+    private final int connect;
+    private final Weights weights;
+    private final int[] windowCells; // the cells of window w are windowCells[w * connect] and on
+    private final int[][] cellWindows; // the windows through each cell
+    private final byte[] cells; // cells[col * height + row]: 0 empty, 1 player 0, 2 player 1
+    private final int[] heights;
+    private final int[] counts; // discs of player 0 in each window, plus those of player 1 << 8
+    private final int[] values; // what each window adds to the score now
+    private int score; // for player 0
+    private int moves;
+
+    /*---------------------------------------------------------------------------
+    | Evaluator()                                                               |
+    |---------------------------------------------------------------------------|
+    | width, height, connect: The variant, like for Board.create.               |
+    | weights: How much each feature is worth.                                  |
+    ---------------------------------------------------------------------------*/
+    public Evaluator(int width, int height, int connect, Weights weights) {
+        // variables
+        List<int[]> windows = new ArrayList<>();
+        int[] windowsPerCell = new int[width * height];
+
+        this.width = width;
+        this.height = height;
+        this.connect = connect;
+        this.weights = weights;
+
+        // every line of connect cells that fits on the board
+        for (int[] direction : DIRECTIONS) {
+            for (int col = 0; col < width; col++) {
+                for (int row = 0; row < height; row++) {
+                    int lastCol = col + (connect - 1) * direction[0];
+                    int lastRow = row + (connect - 1) * direction[1];
+                    if (lastCol >= width || lastRow < 0 || lastRow >= height) {
+                        continue;
+                    }
+                    int[] window = new int[connect];
+                    for (int i = 0; i < connect; i++) {
+                        window[i] = (col + i * direction[0]) * height + row + i * direction[1];
+                        windowsPerCell[window[i]]++;
+                    }
+                    windows.add(window);
+                }
+            }
+        }
+
+        windowCells = new int[windows.size() * connect];
+        cellWindows = new int[width * height][];
+        for (int cell = 0; cell < cellWindows.length; cell++) {
+            cellWindows[cell] = new int[windowsPerCell[cell]];
+            windowsPerCell[cell] = 0;
+        }
+        for (int w = 0; w < windows.size(); w++) {
+            for (int i = 0; i < connect; i++) {
+                int cell = windows.get(w)[i];
+                windowCells[w * connect + i] = cell;
+                cellWindows[cell][windowsPerCell[cell]++] = w;
+            }
+        }
+        cells = new byte[width * height];
+        heights = new int[width];
+        counts = new int[windows.size()];
+        values = new int[windows.size()];
+    }
+
+    public Evaluator(Board board, Weights weights) {
+        this(board.width(), board.height(), board.connect(), weights);
+        copyFrom(board);
+    }
+
+    /*---------------------------------------------------------------------------
+    | void copyFrom()                                                           |
+    |---------------------------------------------------------------------------|
+    | board: A board of the same variant.                                       |
+    |---------------------------------------------------------------------------|
+    | This program sets the evaluator to the board's position, once before a    |
+    | search; from then on drop and undo keep it up to date.                    |
+    ---------------------------------------------------------------------------*/
+    public void copyFrom(Board board) {
+        Arrays.fill(counts, 0);
+        moves = board.moves();
+        for (int col = 0; col < width; col++) {
+            heights[col] = 0;
+            for (int row = 0; row < height; row++) {
+                int owner = board.cell(row, col);
+                cells[col * height + row] = (byte) (owner + 1);
+                if (owner >= 0) {
+                    heights[col] = row + 1;
+                    for (int w : cellWindows[col * height + row]) {
+                        counts[w] += owner == 0 ? 1 : 1 << 8;
+                    }
+                }
+            }
+        }
+        score = 0;
+        for (int w = 0; w < values.length; w++) {
+            values[w] = value(w);
+            score += values[w];
+        }
+        for (int col = 0; col < width; col++) {
+            if (isCenter(col)) {
+                for (int row = 0; row < heights[col]; row++) {
+                    score += cells[col * height + row] == 1 ? weights.center : -weights.center;
+                }
+            }
+        }
+    }
+
+    /*---------------------------------------------------------------------------
+    | void drop()                                                               |
+    |---------------------------------------------------------------------------|
+    | col: The column the board just dropped a disc in, for the player who was  |
+    |      to move.                                                             |
+    ---------------------------------------------------------------------------*/
+    public void drop(int col) {
+        int cell = col * height + heights[col]++;
+        int player = moves++ & 1;
+        cells[cell] = (byte) (player + 1);
+        for (int w : cellWindows[cell]) {
+            counts[w] += player == 0 ? 1 : 1 << 8;
+            update(w);
+        }
+        if (isCenter(col)) {
+            score += player == 0 ? weights.center : -weights.center;
+        }
+    }
+
+    /*---------------------------------------------------------------------------
+    | void undo()                                                               |
+    |---------------------------------------------------------------------------|
+    | col: The column the board just took the top disc out of.                  |
+    ---------------------------------------------------------------------------*/
+    public void undo(int col) {
+        int cell = col * height + --heights[col];
+        int player = --moves & 1;
+        cells[cell] = 0;
+        for (int w : cellWindows[cell]) {
+            counts[w] -= player == 0 ? 1 : 1 << 8;
+            update(w);
+        }
+        if (isCenter(col)) {
+            score -= player == 0 ? weights.center : -weights.center;
+        }
+    }
+
+    /*---------------------------------------------------------------------------
+    | int evaluate()                                                            |
+    |---------------------------------------------------------------------------|
+    | returns int: The score for the player to move, bigger is better.          |
+    ---------------------------------------------------------------------------*/
+    public int evaluate() {
+        return (moves & 1) == 0 ? score : -score;
+    }
+
+    /*---------------------------------------------------------------------------
+    | int rescan()                                                              |
+    |---------------------------------------------------------------------------|
+    | returns int: The same score evaluate() keeps, counted from scratch over   |
+    |              every window of the board. This is what evaluating costs     |
+    |              without the evaluator following the moves.                   |
+    |---------------------------------------------------------------------------|
+    | board: A board of the evaluator's variant.                                |
+    ---------------------------------------------------------------------------*/
+    public int rescan(Board board) {
+        // variables
+        int total = 0;
+
+        for (int w = 0; w < counts.length; w++) {
+            int own = 0;
+            int other = 0;
+            int empty = -1;
+            for (int i = 0; i < connect; i++) {
+                int cell = windowCells[w * connect + i];
+                int owner = board.cell(cell % height, cell / height);
+                if (owner == 0) {
+                    own++;
+                } else if (owner == 1) {
+                    other++;
+                } else {
+                    empty = cell;
+                }
+            }
+            total += value(own, other, empty);
+        }
+        for (int col = 0; col < width; col++) {
+            if (isCenter(col)) {
+                for (int row = 0; row < height; row++) {
+                    int owner = board.cell(row, col);
+                    total += owner == 0 ? weights.center : owner == 1 ? -weights.center : 0;
+                }
+            }
+        }
+        return board.playerToMove() == 0 ? total : -total;
+    }
+
+    private void update(int w) {
+        score -= values[w];
+        values[w] = value(w);
+        score += values[w];
+    }
+
+    private int value(int w) {
+        // variables
+        int own = counts[w] & 0xFF;
+        int other = counts[w] >>> 8;
+        int empty = -1;
+
+        if (own + other == connect - 1 && (own == 0 || other == 0)) {
+            for (int i = 0; empty < 0; i++) {
+                int cell = windowCells[w * connect + i];
+                if (cells[cell] == 0) {
+                    empty = cell;
+                }
+            }
+        }
+        return value(own, other, empty);
+    }
+
+    /*---------------------------------------------------------------------------
+    | int value()                                                               |
+    |---------------------------------------------------------------------------|
+    | returns int: What a window is worth for player 0 (negative if it is worth |
+    |              something for player 1).                                     |
+    |---------------------------------------------------------------------------|
+    | own, other: The discs of player 0 and player 1 in the window.             |
+    | empty: An empty cell of the window, used for open threes.                 |
+    ---------------------------------------------------------------------------*/
+    private int value(int own, int other, int empty) {
+        // variables
+        int player = own > 0 ? 0 : 1;
+        int discs = own + other;
+        int value;
+
+        if ((own > 0 && other > 0) || discs == 0) {
+            return 0;
+        }
+        if (discs == connect - 1) {
+            value = weights.three;
+            if ((empty % height & 1) == player) {
+                value += weights.parity;
+            }
+        } else if (discs == connect - 2) {
+            value = weights.two;
+        } else {
+            return 0;
+        }
+        return player == 0 ? value : -value;
+    }
+
+    private boolean isCenter(int col) {
+        return col == width / 2 || col == (width - 1) / 2;
+    }
+
+    public int windows() {
+        return counts.length;
+    }
+
+    public Weights weights() {
+        return weights;
+    }
+}
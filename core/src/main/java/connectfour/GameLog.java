@@ -0,0 +1,439 @@
+package connectfour;
+
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.locks.*;
+import java.util.function.Consumer;
+
+/**
+ * Every finished game, appended to one binary file for later analysis.
+ *
+ * The file is a header and then one record per game, little-endian:
+ *
+ *   header   16 bytes: int magic ("C4GL"), int version, byte columns, byte
+ *            rows, byte connect, 5 bytes unused
+ *   record   16 bytes: int player (stats record number, -1 for none), long
+ *            time (milliseconds since 1970), byte result (GameResult
+ *            ordinal), 1 byte unused, short number of moves; then the moves,
+ *            two to a byte, the first in the low 4 bits
+ *
+ * so a 42-move game takes 37 bytes. Columns are counted from 0, and boards
+ * are at most 15 columns wide, so a move fits in 4 bits. A log holds the
+ * games of one variant.
+ *
+ * Records are only ever appended. append() puts the record in a batch and
+ * waits until the batch is written (and forced to disk with sync on). The
+ * first waiting thread writes the whole batch with one write and one force,
+ * and records appended meanwhile go in the next batch. So many sessions
+ * finishing at once share one force instead of queueing for one each (group
+ * commit).
+ *
+ * scan() streams the records through a small buffer, so a file of millions of
+ * games is never in memory. A record cut off at the end of the file (the
+ * program died during a write) is left out, and open() cuts it off the file,
+ * so the next record starts where the last whole one ends.
+ *
+ * Usage: java connectfour.GameLog <log file> [stats file]
+ *        (prints every player's totals from the log; with a stats file their
+ *        wins, losses and ties there are set to the totals)
+ */
+public class GameLog implements Closeable {
+
+    // constants
+    static final int MAGIC = 0x4C473443; // "C4GL"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 16;
+    static final int RECORD_HEADER_BYTES = 16;
+    static final int BATCH_BYTES = 64 * 1024;
+    static final int MAX_COLUMNS = 15;
+    static final int MAX_MOVES = MAX_COLUMNS * MAX_COLUMNS; // the biggest board, so a record always fits in a batch
+    private static final GameResult[] RESULTS = GameResult.values();
+
+    // variables
+    private final FileChannel channel;
+    private final boolean sync;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition written = lock.newCondition();
+    private ByteBuffer pending = ByteBuffer.allocate(BATCH_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+    private ByteBuffer spare = ByteBuffer.allocate(BATCH_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+    private long appended; // bytes of records appended, a record's number is where it ends
+    private long committed; // bytes of records written
+    private boolean writing; // a thread is writing a batch
+    private IOException failure; // set when a batch couldn't be written, the log is unusable from then on
+    private long batches;
+
+    private GameLog(FileChannel channel, boolean sync) {
+        this.channel = channel;
+        this.sync = sync;
+    }
+
+    /*---------------------------------------------------------------------------
+    | GameLog open()                                                            |
+    |---------------------------------------------------------------------------|
+    | returns GameLog: The log, ready for appending.                            |
+    |---------------------------------------------------------------------------|
+    | path: The log file. It is created if it doesn't exist.                    |
+    | width, height, connect: The variant of the games.                         |
+    | sync: True to force every batch to disk before append returns.            |
+    |---------------------------------------------------------------------------|
+    | This program throws an IOException if the file is not a game log or holds |
+    | a different variant. A record cut off at the end of the file is removed.  |
+    ---------------------------------------------------------------------------*/
+    public static GameLog open(Path path, int width, int height, int connect, boolean sync) throws IOException {
+        // variables
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+
+        if (width > MAX_COLUMNS) {
+            channel.close();
+            throw new IllegalArgumentException("game logs hold boards up to " + MAX_COLUMNS + " columns wide");
+        }
+        try {
+            // only one process may write the header of a new file
+            FileLock lock = channel.lock();
+            try {
+                if (channel.size() == 0) {
+                    header.putInt(MAGIC).putInt(VERSION).put((byte) width).put((byte) height).put((byte) connect);
+                    header.clear();
+                    while (header.hasRemaining()) {
+                        channel.write(header);
+                    }
+                    channel.force(true);
+                } else {
+                    try (FileChannel reader = FileChannel.open(path, StandardOpenOption.READ)) {
+                        readHeader(reader, path, header);
+                    }
+                    if (header.get(8) != width || header.get(9) != height || header.get(10) != connect) {
+                        throw new IOException(path + " holds " + variant(header) + " games");
+                    }
+                    long end = wholeRecordsEnd(path);
+                    if (channel.size() > end) {
+                        channel.truncate(end); // appending after half a record would misplace every later one
+                    }
+                }
+            } finally {
+                lock.release();
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        return new GameLog(channel, sync);
+    }
+
+    /*---------------------------------------------------------------------------
+    | GameLog fromProperties()                                                  |
+    |---------------------------------------------------------------------------|
+    | returns GameLog: The log in connectfour.gameLog ("games.log" by default)  |
+    |                  for the connectfour.* variant, or null if the property   |
+    |                  is "none". Batches are forced to disk unless             |
+    |                  connectfour.gameLogSync is false.                        |
+    ---------------------------------------------------------------------------*/
+    public static GameLog fromProperties() throws IOException {
+        String file = System.getProperty("connectfour.gameLog", "games.log");
+        if (file.equals("none")) {
+            return null;
+        }
+        Board variant = Board.fromProperties(); // not ConnectFour's, the server has no console game
+        return open(Paths.get(file), variant.width(), variant.height(), variant.connect(),
+                Boolean.parseBoolean(System.getProperty("connectfour.gameLogSync", "true")));
+    }
+
+    private static void readHeader(FileChannel channel, Path path, ByteBuffer header) throws IOException {
+        header.clear();
+        while (header.hasRemaining() && channel.read(header, header.position()) >= 0) {
+            // read until the header is full or the file ends
+        }
+        if (header.hasRemaining() || header.getInt(0) != MAGIC) {
+            throw new IOException(path + " is not a game log");
+        }
+        if (header.getInt(4) != VERSION) {
+            throw new IOException(path + " has game log version " + header.getInt(4) + ", expected " + VERSION);
+        }
+    }
+
+    // where the last whole record ends, which is the end of the file unless a write was cut off
+    private static long wholeRecordsEnd(Path path) throws IOException {
+        long[] end = {HEADER_BYTES};
+        scan(path, record -> end[0] += recordBytes(record.length()));
+        return end[0];
+    }
+
+    private static int recordBytes(int moves) {
+        return RECORD_HEADER_BYTES + (moves + 1) / 2;
+    }
+
+    private static String variant(ByteBuffer header) {
+        return header.get(8) + "x" + header.get(9) + " connect " + header.get(10);
+    }
+
+    /*---------------------------------------------------------------------------
+    | void append()                                                             |
+    |---------------------------------------------------------------------------|
+    | player: The player's record number in the stats store, or -1.             |
+    | result: How the game ended.                                               |
+    | moves: The game as a move string, like MoveLog writes it.                 |
+    |---------------------------------------------------------------------------|
+    | This program adds the game to the log and returns once it is written.     |
+    | It throws an IOException if its batch (or an earlier one) couldn't be     |
+    | written, and an IllegalArgumentException (with nothing added) if the      |
+    | moves are not a move string.                                              |
+    ---------------------------------------------------------------------------*/
+    public void append(int player, GameResult result, CharSequence moves) throws IOException {
+        // variables
+        int size = recordBytes(moves.length());
+        long end;
+
+        checkMoves(moves); // before the record goes in the batch, half a record would garble the rest of the file
+        lock.lock();
+        try {
+            while (pending.remaining() < size && failure == null) {
+                await(); // the batch is full, wait for the thread writing the last one
+            }
+            if (failure != null) {
+                throw new IOException("the game log can't be written", failure);
+            }
+            encode(pending, player, System.currentTimeMillis(), result, moves);
+            end = appended += size;
+
+            while (committed < end) {
+                if (failure != null) {
+                    throw new IOException("the game log can't be written", failure);
+                }
+                if (writing) {
+                    await();
+                } else {
+                    writeBatch();
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // writes every record appended so far; called with the lock held, which is let go during the write
+    private void writeBatch() {
+        // variables
+        ByteBuffer batch = pending;
+        long end = appended;
+        IOException error = null;
+
+        pending = spare;
+        writing = true;
+        lock.unlock();
+        try {
+            batch.flip();
+            while (batch.hasRemaining()) {
+                channel.write(batch);
+            }
+            if (sync) {
+                channel.force(false);
+            }
+        } catch (IOException e) {
+            error = e;
+        } finally {
+            lock.lock();
+        }
+        batch.clear();
+        spare = batch;
+        writing = false;
+        batches++;
+        if (error != null) {
+            failure = error;
+        } else {
+            committed = end;
+        }
+        written.signalAll();
+    }
+
+    private void await() throws InterruptedIOException {
+        try {
+            written.await();
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted while the game log was written");
+        }
+    }
+
+    private static void checkMoves(CharSequence moves) {
+        if (moves.length() > MAX_MOVES) {
+            throw new IllegalArgumentException("too many moves for a game: " + moves.length());
+        }
+        for (int i = 0; i < moves.length(); i++) {
+            int col = moves.charAt(i) - '1';
+            if (col < 0 || col >= MAX_COLUMNS) {
+                throw new IllegalArgumentException("not a move string: " + moves);
+            }
+        }
+    }
+
+    // the moves have been checked with checkMoves
+    private static void encode(ByteBuffer buffer, int player, long time, GameResult result, CharSequence moves) {
+        buffer.putInt(player).putLong(time).put((byte) result.ordinal()).put((byte) 0).putShort((short) moves.length());
+        for (int i = 0; i < moves.length(); i += 2) {
+            int low = moves.charAt(i) - '1';
+            int high = i + 1 < moves.length() ? moves.charAt(i + 1) - '1' : 0;
+            buffer.put((byte) (low | high << 4));
+        }
+    }
+
+    public long batches() {
+        return batches; // writes so far, fewer than the records when group commit is working
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close(); // append only returns once its record is written, so nothing is left to write
+    }
+
+    /**
+     * One game of the log. scan() hands the same Record to every call, so it
+     * is only valid until the call returns; copy what needs to be kept.
+     */
+    public static final class Record {
+
+        // variables
+        private int player;
+        private long time;
+        private GameResult result;
+        private int length;
+        private final byte[] moves = new byte[0xFFFF]; // one column per byte
+
+        public int player() {
+            return player;
+        }
+
+        public long time() {
+            return time;
+        }
+
+        public GameResult result() {
+            return result;
+        }
+
+        public int length() {
+            return length;
+        }
+
+        public int move(int i) {
+            return moves[i]; // column from 0
+        }
+
+        public String moves() {
+            return MoveLog.Snapshot.moveString(moves, length);
+        }
+    }
+
+    /*---------------------------------------------------------------------------
+    | long scan()                                                               |
+    |---------------------------------------------------------------------------|
+    | returns long: How many records were read.                                 |
+    |---------------------------------------------------------------------------|
+    | path: The log file.                                                       |
+    | visitor: Called with every record, in the order they were written.        |
+    |---------------------------------------------------------------------------|
+    | This program reads the log from start to end. It throws an IOException if |
+    | the file is not a game log or a record makes no sense.                    |
+    ---------------------------------------------------------------------------*/
+    public static long scan(Path path, Consumer<Record> visitor) throws IOException {
+        // variables
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BATCH_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        Record record = new Record();
+        long offset = HEADER_BYTES; // of the first record in the buffer
+        long count = 0;
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            readHeader(channel, path, ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN));
+            channel.position(HEADER_BYTES);
+            while (channel.read(buffer) >= 0) {
+                buffer.flip();
+                while (buffer.remaining() >= RECORD_HEADER_BYTES) {
+                    int start = buffer.position();
+                    int length = Short.toUnsignedInt(buffer.getShort(start + 14));
+                    int size = recordBytes(length);
+                    if (buffer.remaining() < size) {
+                        break; // the rest of the record is in the next read
+                    }
+                    int result = buffer.get(start + 12);
+                    if (result < 0 || result >= RESULTS.length) {
+                        throw new IOException(path + " has a bad record at byte " + offset);
+                    }
+                    record.player = buffer.getInt(start);
+                    record.time = buffer.getLong(start + 4);
+                    record.result = RESULTS[result];
+                    record.length = length;
+                    for (int i = 0; i < length; i += 2) {
+                        int packed = buffer.get(start + RECORD_HEADER_BYTES + i / 2);
+                        record.moves[i] = (byte) (packed & 0xF);
+                        if (i + 1 < length) {
+                            record.moves[i + 1] = (byte) (packed >>> 4 & 0xF);
+                        }
+                    }
+                    buffer.position(start + size);
+                    offset += size;
+                    count++;
+                    visitor.accept(record);
+                }
+                buffer.compact();
+            }
+        }
+        return count;
+    }
+
+    /*---------------------------------------------------------------------------
+    | Map<Integer, int[]> totals()                                              |
+    |---------------------------------------------------------------------------|
+    | returns Map<Integer, int[]>: Every player's wins, losses and ties in the  |
+    |                              log, by stats record number (-1 for the      |
+    |                              games of players without a record).          |
+    |---------------------------------------------------------------------------|
+    | path: The log file.                                                       |
+    ---------------------------------------------------------------------------*/
+    public static Map<Integer, int[]> totals(Path path) throws IOException {
+        Map<Integer, int[]> totals = new TreeMap<>();
+        scan(path, record -> {
+            if (record.result().isOver()) {
+                int[] total = totals.computeIfAbsent(record.player(), player -> new int[3]);
+                total[record.result() == GameResult.USER_WIN ? 0 : record.result() == GameResult.BOT_WIN ? 1 : 2]++;
+            }
+        });
+        return totals;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.out.println("Usage: java connectfour.GameLog <log file> [stats file]");
+            return;
+        }
+        long start = System.nanoTime();
+        Map<Integer, int[]> totals = totals(Paths.get(args[0]));
+        System.out.printf("%d players in %.2f s%n", totals.size(), (System.nanoTime() - start) / 1e9);
+
+        if (args.length < 2) {
+            for (Map.Entry<Integer, int[]> total : totals.entrySet()) {
+                int[] t = total.getValue();
+                System.out.printf("player %d: %d wins, %d losses, %d ties%n", total.getKey(), t[0], t[1], t[2]);
+            }
+            return;
+        }
+        try (StatsStore store = StatsStore.open(Paths.get(args[1]), StatsStore.DEFAULT_CAPACITY)) {
+            for (Map.Entry<Integer, int[]> total : totals.entrySet()) {
+                int player = total.getKey();
+                int[] t = total.getValue();
+                if (player < 0) {
+                    continue;
+                }
+                if (player >= store.size()) {
+                    System.out.println("Uh oh! player " + player + " is not in " + args[1]);
+                    continue;
+                }
+                store.setStats(player, t[0], t[1], t[2]);
+                System.out.printf("%s: %d wins, %d losses, %d ties%n", store.name(player), t[0], t[1], t[2]);
+            }
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package connectfour;
+
+/**
+ * The result of a Connect Four game after a move.
+ */
+public enum GameResult {
+    NOT_OVER,
+    USER_WIN,
+    BOT_WIN,
+    TIE;
+
+    /*---------------------------------------------------------------------------
+    | boolean isOver()                                                          |
+    |---------------------------------------------------------------------------|
+    | returns boolean: True if somebody won or the game tied.                   |
+    ---------------------------------------------------------------------------*/
+    public boolean isOver() {
+        return this != NOT_OVER;
+    }
+}
@@ -0,0 +1,197 @@
+package connectfour;
+
+import java.io.*;
+import java.net.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.Locale;
+import java.util.concurrent.*;
+
+/**
+ * Hosts many Connect Four games at once over a small line-based protocol.
+ *
+ * Every connection gets its own thread (a virtual thread on Java 21+) and its
+ * own GameSession, so sessions share nothing but the stats store and the game
+ * log (connectfour.gameLog, see GameLog). Commands and replies are one line
+ * each:
+ *
+ *   JOIN <name>   start a new game          OK JOINED <name>
+ *   MOVE <col>    play a column, from 1     MOVED <col> <bot col or -> <result>
+ *   BOARD         show the board            BOARD <rows top to bottom, '/' between>
+ *   RESULT        show the result           RESULT <NOT_OVER|USER_WIN|BOT_WIN|TIE>
+ *   UNDO          take back a move          UNDONE <moves left, as a move string>
+ *   MOVES         show the moves            MOVES <move string, like 4453>
+ *   QUIT          close the connection      BYE
+ *
+ * Anything that can't be done is answered with "ERR <reason>".
+ *
+ * The bot in every session searches to the bot depth, or with a time budget
+ * for as deep as it gets until the budget runs out, and then answers with the
+ * best column it found so far. A budget keeps every move within a fixed time
+ * however many sessions share the CPU.
+ *
+ * Usage: java connectfour.GameServer [port] [bot depth, 0 for no limit] [stats file or "none"] [bot time ms, 0 for none]
+ */
+public class GameServer implements Closeable {
+
+    // constants
+    public static final int DEFAULT_PORT = 4444;
+
+    // variables
+    private final ServerSocket serverSocket;
+    private final ExecutorService sessions = Threads.newPerTaskExecutor("game-session");
+    private final int botDepth;
+    private final long botTimeMillis; // 0 means no time limit
+    private final StatsStore stats; // null if results are not saved
+    private final GameLog games; // null if games are not logged
+
+    /*---------------------------------------------------------------------------
+    | GameServer()                                                              |
+    |---------------------------------------------------------------------------|
+    | port: The local port to listen on (0 picks a free one).                   |
+    | botDepth: How deep the bot searches in every session.                     |
+    | botTimeMillis: How long the bot may search for one move. 0 means no limit.|
+    | stats: Where results are saved, or null to not save them.                 |
+    | games: Where finished games are logged, or null to not log them.          |
+    ---------------------------------------------------------------------------*/
+    public GameServer(int port, int botDepth, long botTimeMillis, StatsStore stats, GameLog games)
+            throws IOException {
+        this.serverSocket = new ServerSocket(port, 16384, InetAddress.getLoopbackAddress());
+        this.botDepth = botDepth;
+        this.botTimeMillis = botTimeMillis;
+        this.stats = stats;
+        this.games = games;
+    }
+
+    public static void main(String[] args) throws IOException {
+        // variables and constants
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        int depth = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+        String statsFile = args.length > 2 ? args[2] : System.getProperty("connectfour.stats", "players.stats");
+        long timeMillis = args.length > 3 ? Long.parseLong(args[3]) : Long.getLong("connectfour.timeMs", 0);
+        StatsStore stats = statsFile.equals("none") ? null : StatsStore.open(Paths.get(statsFile), StatsStore.DEFAULT_CAPACITY);
+        GameLog games = GameLog.fromProperties();
+
+        try (GameServer server = new GameServer(port, depth == 0 ? SearchEngine.NO_DEPTH_LIMIT : depth, timeMillis, stats,
+                games)) {
+            System.out.println("Connect Four server listening on port " + server.port()
+                    + (Threads.virtualThreadsAvailable() ? " (virtual threads)" : " (platform threads)"));
+            server.serve();
+        } finally {
+            if (stats != null) {
+                stats.close();
+            }
+            if (games != null) {
+                games.close();
+            }
+        }
+    }
+
+    /*---------------------------------------------------------------------------
+    | void serve()                                                              |
+    |---------------------------------------------------------------------------|
+    | This program accepts connections until the server is closed, and starts   |
+    | a session thread for each one.                                            |
+    ---------------------------------------------------------------------------*/
+    public void serve() throws IOException {
+        while (!serverSocket.isClosed()) {
+            Socket socket;
+            try {
+                socket = serverSocket.accept();
+            } catch (SocketException e) {
+                return; // closed while waiting
+            }
+            sessions.execute(() -> handle(socket));
+        }
+    }
+
+    /*---------------------------------------------------------------------------
+    | void handle()                                                             |
+    |---------------------------------------------------------------------------|
+    | socket: The connection of one player.                                     |
+    |---------------------------------------------------------------------------|
+    | This program reads commands until QUIT or until the player hangs up.      |
+    ---------------------------------------------------------------------------*/
+    void handle(Socket socket) {
+        GameSession session = new GameSession(new SearchEngine(botDepth, botTimeMillis));
+        try (socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             PrintWriter out = new PrintWriter(new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8)))) {
+            socket.setTcpNoDelay(true);
+            String line;
+            while ((line = in.readLine()) != null) {
+                String reply = execute(session, line.trim());
+                out.print(reply);
+                out.print('\n');
+                out.flush();
+                if (reply.equals("BYE")) {
+                    return;
+                }
+            }
+        } catch (IOException e) {
+            // the player hung up, nothing to clean up but the socket
+        }
+    }
+
+    /*---------------------------------------------------------------------------
+    | String execute()                                                          |
+    |---------------------------------------------------------------------------|
+    | returns String: The reply line (without the line break).                  |
+    |---------------------------------------------------------------------------|
+    | session: The player's session.                                            |
+    | line: One command line.                                                   |
+    ---------------------------------------------------------------------------*/
+    String execute(GameSession session, String line) {
+        // variables
+        int space = line.indexOf(' ');
+        String command = (space < 0 ? line : line.substring(0, space)).toUpperCase(Locale.ROOT);
+        String argument = space < 0 ? "" : line.substring(space + 1).trim();
+
+        try {
+            switch (command) {
+                case "JOIN":
+                    if (argument.isEmpty()) {
+                        return "ERR JOIN needs a name";
+                    }
+                    session.join(argument, stats == null ? -1 : stats.findOrCreate(argument));
+                    return "OK JOINED " + argument;
+                case "MOVE":
+                    int botCol = session.move(Integer.parseInt(argument));
+                    if (session.result().isOver() && session.player() >= 0) {
+                        stats.recordResult(session.player(), session.result());
+                    }
+                    if (session.result().isOver() && games != null) {
+                        games.append(session.player(), session.result(), session.moves());
+                    }
+                    return "MOVED " + argument + " " + (botCol == 0 ? "-" : botCol) + " " + session.result();
+                case "BOARD":
+                    return "BOARD " + session.boardRows();
+                case "RESULT":
+                    return "RESULT " + session.result();
+                case "UNDO":
+                    session.undo();
+                    return "UNDONE " + session.moves();
+                case "MOVES":
+                    return "MOVES " + session.moves();
+                case "QUIT":
+                    return "BYE";
+                default:
+                    return "ERR unknown command: " + command;
+            }
+        } catch (NumberFormatException e) {
+            return "ERR MOVE needs a column number";
+        } catch (IllegalArgumentException | IllegalStateException | IOException e) {
+            return "ERR " + e.getMessage();
+        }
+    }
+
+    public int port() {
+        return serverSocket.getLocalPort();
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        sessions.shutdownNow();
+    }
+}
@@ -0,0 +1,150 @@
+package connectfour;
+
+/**
+ * One player's game on the server.
+ *
+ * Everything ConnectFour keeps in statics for its single console player lives
+ * here instead: the board, the result so far and the bot's search engine.
+ * Moves are kept in a MoveLog, so they can be taken back and written out as a
+ * move string, and go through the same Rules the console game uses. The
+ * board is the connectfour.* variant (Board.fromProperties). A session is
+ * only used by its own connection's thread.
+ */
+public class GameSession {
+
+    // variables
+    private final Board board = Board.fromProperties();
+    private final MoveLog history = new MoveLog(board);
+    private final SearchEngine engine;
+    private final char[][] charBoard = new char[board.height()][board.width()];
+    private String name;
+    private int player = -1; // record number in the stats store, -1 if there is none
+    private GameResult result = GameResult.NOT_OVER;
+    private boolean started;
+
+    /*---------------------------------------------------------------------------
+    | GameSession()                                                             |
+    |---------------------------------------------------------------------------|
+    | engine: The bot's search engine. It must not be shared with other         |
+    |         sessions.                                                         |
+    ---------------------------------------------------------------------------*/
+    public GameSession(SearchEngine engine) {
+        this.engine = engine;
+    }
+
+    /*---------------------------------------------------------------------------
+    | void join()                                                               |
+    |---------------------------------------------------------------------------|
+    | name: The player's name.                                                  |
+    | player: The player's record number in the stats store, or -1.             |
+    |---------------------------------------------------------------------------|
+    | This program starts a new game. The player moves first.                   |
+    ---------------------------------------------------------------------------*/
+    public void join(String name, int player) {
+        this.name = name;
+        this.player = player;
+        history.playMoves("");
+        result = GameResult.NOT_OVER;
+        started = true;
+    }
+
+    /*---------------------------------------------------------------------------
+    | int move()                                                                |
+    |---------------------------------------------------------------------------|
+    | returns int: The column (from 1) the bot answered with, or 0 if the       |
+    |              player's move ended the game.                                |
+    |---------------------------------------------------------------------------|
+    | colNum: The player's column, from 1 to the board's width.                 |
+    |---------------------------------------------------------------------------|
+    | This program throws an IllegalStateException if there is no game going,   |
+    | and an IllegalArgumentException if the column is not a legal move.        |
+    ---------------------------------------------------------------------------*/
+    public int move(int colNum) {
+        // variables
+        int botCol;
+
+        if (!started) {
+            throw new IllegalStateException("no game, send JOIN first");
+        }
+        if (result.isOver()) {
+            throw new IllegalStateException("the game is over, send JOIN to play again");
+        }
+        if (colNum < 1 || colNum > board.width()) {
+            throw new IllegalArgumentException("column must be from 1 to " + board.width());
+        }
+        if (!board.canPlay(colNum - 1)) {
+            throw new IllegalArgumentException("column " + colNum + " is full");
+        }
+
+        history.play(colNum - 1);
+        result = Rules.checkIfGameOver(board, colNum, Rules.USER_CHIP);
+        if (result.isOver()) {
+            return 0;
+        }
+
+        botCol = engine.search(board).bestMove + 1;
+        history.play(botCol - 1);
+        result = Rules.checkIfGameOver(board, botCol, Rules.BOT_CHIP);
+        return botCol;
+    }
+
+    /*---------------------------------------------------------------------------
+    | void undo()                                                               |
+    |---------------------------------------------------------------------------|
+    | This program takes back the player's last move and the bot's answer to    |
+    | it, so it is the player's turn again. It throws an IllegalStateException  |
+    | if there is no game, the player has not moved yet or the game is over (a  |
+    | finished game has been recorded, so it can't be played again).            |
+    ---------------------------------------------------------------------------*/
+    public void undo() {
+        if (!started || history.length() == 0) {
+            throw new IllegalStateException("no move to take back");
+        }
+        if (result.isOver()) {
+            throw new IllegalStateException("the game is over, send JOIN to play again");
+        }
+        history.undo(); // the bot's answer
+        history.undo();
+        result = GameResult.NOT_OVER;
+    }
+
+    public String moves() {
+        return history.toString(); // the game so far as a move string
+    }
+
+    /*---------------------------------------------------------------------------
+    | String boardRows()                                                        |
+    |---------------------------------------------------------------------------|
+    | returns String: The board as rows from top to bottom separated by '/',    |
+    |                 with '.' for an empty cell.                               |
+    ---------------------------------------------------------------------------*/
+    public String boardRows() {
+        StringBuilder rows = new StringBuilder(board.height() * (board.width() + 1));
+        board.toCharBoard(charBoard, Rules.USER_CHIP, Rules.BOT_CHIP);
+        for (int row = 0; row < board.height(); row++) {
+            if (row > 0) {
+                rows.append('/');
+            }
+            for (int col = 0; col < board.width(); col++) {
+                rows.append(charBoard[row][col] == ' ' ? '.' : charBoard[row][col]);
+            }
+        }
+        return rows.toString();
+    }
+
+    public boolean started() {
+        return started;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public int player() {
+        return player;
+    }
+
+    public GameResult result() {
+        return result;
+    }
+}
@@ -0,0 +1,209 @@
+package connectfour;
+
+import java.util.*;
+
+/**
+ * A Connect Four board of any size up to 15 x 15, where any number in a row
+ * wins. This is the board for the variants that a BitBoard can't hold.
+ *
+ * Every cell is one byte (0 empty, 1 player 0, 2 player 1), stored column by
+ * column from the bottom, and a height array remembers how full each column
+ * is. A win is found by counting the player's discs outwards from the new disc
+ * along the four lines through it.
+ *
+ * The key is a Zobrist hash: every (player, cell) pair has a random number and
+ * the key is all of them XOR-ed together, updated with one XOR per move. The
+ * numbers come from a fixed seed per board size, so the same position has the
+ * same key in every game and every process. Two positions sharing a key is
+ * possible but very unlikely with 64 bits. A second key is kept the same way
+ * for the board flipped left to right, so mirrorKey costs nothing.
+ */
+public class GridBoard implements Board {
+
+    // variables
+    private final int width;
+    private final int height;
+    private final int connect;
+    private final byte[] cells; // cells[col * height + row], row 0 at the bottom
+    private final int[] heights; // discs in each column
+    private final long[] zobrist; // zobrist[player * width * height + cell]
+    private int moves;
+    private long key;
+    private long mirrorKey; // the key of the board flipped left to right
+
+    /*---------------------------------------------------------------------------
+    | GridBoard()                                                               |
+    |---------------------------------------------------------------------------|
+    | width: How many columns.                                                  |
+    | height: How many rows.                                                    |
+    | connect: How many discs in a row win.                                     |
+    |---------------------------------------------------------------------------|
+    | Use Board.create, which checks the sizes and picks a BitBoard for the     |
+    | usual game.                                                               |
+    ---------------------------------------------------------------------------*/
+    GridBoard(int width, int height, int connect) {
+        // variables
+        SplittableRandom random = new SplittableRandom(width * 31L + height);
+
+        this.width = width;
+        this.height = height;
+        this.connect = connect;
+        this.cells = new byte[width * height];
+        this.heights = new int[width];
+        this.zobrist = new long[2 * width * height];
+        for (int i = 0; i < zobrist.length; i++) {
+            zobrist[i] = random.nextLong();
+        }
+    }
+
+    @Override
+    public void reset() {
+        Arrays.fill(cells, (byte) 0);
+        Arrays.fill(heights, 0);
+        moves = 0;
+        key = 0;
+        mirrorKey = 0;
+    }
+
+    @Override
+    public GridBoard copy() {
+        GridBoard board = new GridBoard(width, height, connect);
+        board.copyFrom(this);
+        return board;
+    }
+
+    @Override
+    public void copyFrom(Board board) {
+        GridBoard other = (GridBoard) board;
+        System.arraycopy(other.cells, 0, cells, 0, cells.length);
+        System.arraycopy(other.heights, 0, heights, 0, width);
+        moves = other.moves;
+        key = other.key;
+        mirrorKey = other.mirrorKey;
+    }
+
+    @Override
+    public boolean canPlay(int col) {
+        return heights[col] < height;
+    }
+
+    @Override
+    public void drop(int col) {
+        int cell = col * height + heights[col]++;
+        int player = moves & 1;
+        cells[cell] = (byte) (player + 1);
+        key ^= zobrist[player * cells.length + cell];
+        mirrorKey ^= zobrist[player * cells.length + mirrorCell(col, cell)];
+        moves++;
+    }
+
+    @Override
+    public void undo(int col) {
+        moves--;
+        int cell = col * height + --heights[col];
+        cells[cell] = 0;
+        key ^= zobrist[(moves & 1) * cells.length + cell];
+        mirrorKey ^= zobrist[(moves & 1) * cells.length + mirrorCell(col, cell)];
+    }
+
+    // the same row in the column on the other side of the center
+    private int mirrorCell(int col, int cell) {
+        return cell + (width - 1 - 2 * col) * height;
+    }
+
+    @Override
+    public long key() {
+        return key;
+    }
+
+    @Override
+    public long mirrorKey() {
+        return mirrorKey;
+    }
+
+    @Override
+    public boolean isWinningMove(int col) {
+        return wins(col, heights[col], (moves & 1) + 1);
+    }
+
+    @Override
+    public boolean lastMoveWins(int col) {
+        int row = heights[col] - 1;
+        return wins(col, row, cells[col * height + row]);
+    }
+
+    /*---------------------------------------------------------------------------
+    | boolean wins()                                                            |
+    |---------------------------------------------------------------------------|
+    | returns boolean: True if a disc of the owner in the cell makes enough in  |
+    |                  a row. The cell itself is not looked at.                 |
+    |---------------------------------------------------------------------------|
+    | col, row: The cell.                                                       |
+    | owner: The cell value of the player (1 or 2).                             |
+    ---------------------------------------------------------------------------*/
+    private boolean wins(int col, int row, int owner) {
+        return 1 + count(col, row, 0, -1, owner) >= connect // only down, nothing can be above
+                || 1 + count(col, row, 1, 0, owner) + count(col, row, -1, 0, owner) >= connect
+                || 1 + count(col, row, 1, 1, owner) + count(col, row, -1, -1, owner) >= connect
+                || 1 + count(col, row, 1, -1, owner) + count(col, row, -1, 1, owner) >= connect;
+    }
+
+    // how many of the owner's discs follow the cell in one direction
+    private int count(int col, int row, int colStep, int rowStep, int owner) {
+        int count = 0;
+        for (int c = col + colStep, r = row + rowStep;
+             c >= 0 && c < width && r >= 0 && r < height && cells[c * height + r] == owner && count < connect;
+             c += colStep, r += rowStep) {
+            count++;
+        }
+        return count;
+    }
+
+    @Override
+    public int cell(int row, int col) {
+        return cells[col * height + row] - 1;
+    }
+
+    @Override
+    public void fromCharBoard(char[][] gameBoard, char firstChip, char secondChip) {
+        reset();
+        for (int col = 0; col < width; col++) {
+            for (int row = height - 1; row >= 0; row--) {
+                char chip = gameBoard[row][col];
+                if (chip == firstChip || chip == secondChip) {
+                    int player = chip == firstChip ? 0 : 1;
+                    int cell = col * height + heights[col]++;
+                    cells[cell] = (byte) (player + 1);
+                    key ^= zobrist[player * cells.length + cell];
+                    mirrorKey ^= zobrist[player * cells.length + mirrorCell(col, cell)];
+                    moves++;
+                }
+            }
+        }
+    }
+
+    @Override
+    public boolean isFull() {
+        return moves == cells.length;
+    }
+
+    @Override
+    public int moves() {
+        return moves;
+    }
+
+    @Override
+    public int width() {
+        return width;
+    }
+
+    @Override
+    public int height() {
+        return height;
+    }
+
+    @Override
+    public int connect() {
+        return connect;
+    }
+}
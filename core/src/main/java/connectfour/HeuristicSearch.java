@@ -0,0 +1,134 @@
+package connectfour;
+
+/**
+ * A depth-limited bot that scores the positions at the end of its search with
+ * an Evaluator, instead of calling everything it can't see to the end a draw
+ * like SearchEngine does.
+ *
+ * It is negamax with alpha-beta, center columns first. The evaluator follows
+ * every drop and undo of the search, so a leaf costs a few window updates and
+ * no rescan. Wins and losses it sees are worth more than any evaluation, and
+ * sooner wins more than later ones. The score in its SearchResult is on that
+ * scale, not the engine's; only the column and the node count compare.
+ */
+public class HeuristicSearch {
+
+    // constants
+    static final int WIN = 1_000_000; // more than any evaluation
+
+    // variables
+    private final int maxDepth;
+    private final Evaluator.Weights weights;
+    private Evaluator evaluator;
+    private Board board;
+    private int width;
+    private int[] columnOrder;
+    private long nodes;
+
+    /*---------------------------------------------------------------------------
+    | HeuristicSearch()                                                         |
+    |---------------------------------------------------------------------------|
+    | maxDepth: How many moves ahead to look before evaluating.                 |
+    | weights: The evaluator's weights.                                         |
+    ---------------------------------------------------------------------------*/
+    public HeuristicSearch(int maxDepth, Evaluator.Weights weights) {
+        if (maxDepth < 1) {
+            throw new IllegalArgumentException("maxDepth must be at least 1: " + maxDepth);
+        }
+        this.maxDepth = maxDepth;
+        this.weights = weights;
+    }
+
+    /*---------------------------------------------------------------------------
+    | SearchResult search()                                                     |
+    |---------------------------------------------------------------------------|
+    | returns SearchResult: The best column for the player to move.             |
+    |---------------------------------------------------------------------------|
+    | position: The position to search. It must not be full or already won.     |
+    |           Moves are played on it and taken back, so it is the same        |
+    |           when the search returns.                                        |
+    ---------------------------------------------------------------------------*/
+    public SearchResult search(Board position) {
+        // variables
+        long start = System.nanoTime();
+        int depth = Math.min(maxDepth, position.size() - position.moves());
+        int bestMove = -1;
+        int alpha = -WIN - 1;
+
+        begin(position);
+        for (int col : columnOrder) {
+            if (!board.canPlay(col)) {
+                continue;
+            }
+            if (board.isWinningMove(col)) {
+                return new SearchResult(col, WIN, 1, nodes, System.nanoTime() - start);
+            }
+            board.drop(col);
+            evaluator.drop(col);
+            int score = -negamax(depth - 1, -WIN - 1, -alpha);
+            evaluator.undo(col);
+            board.undo(col);
+            if (bestMove == -1 || score > alpha) {
+                bestMove = col;
+                alpha = score;
+            }
+        }
+        return new SearchResult(bestMove, alpha, depth, nodes, System.nanoTime() - start);
+    }
+
+    // gets the search ready for the position, with a new evaluator only when the variant changes
+    private void begin(Board position) {
+        if (evaluator == null || board == null || board.width() != position.width()
+                || board.height() != position.height() || board.connect() != position.connect()) {
+            evaluator = new Evaluator(position.width(), position.height(), position.connect(), weights);
+            columnOrder = SearchEngine.columnOrder(position.width());
+        }
+        board = position;
+        width = position.width();
+        evaluator.copyFrom(position);
+        nodes = 0;
+    }
+
+    /*---------------------------------------------------------------------------
+    | int negamax()                                                             |
+    |---------------------------------------------------------------------------|
+    | returns int: The score of the position for the player to move.            |
+    |---------------------------------------------------------------------------|
+    | depth: How many more moves to look ahead.                                 |
+    | alpha, beta: The window, like in SearchEngine.                            |
+    ---------------------------------------------------------------------------*/
+    private int negamax(int depth, int alpha, int beta) {
+        nodes++;
+        if (board.isFull()) {
+            return 0;
+        }
+        for (int col = 0; col < width; col++) {
+            if (board.canPlay(col) && board.isWinningMove(col)) {
+                return WIN - board.moves();
+            }
+        }
+        if (depth == 0) {
+            return evaluator.evaluate();
+        }
+
+        for (int col : columnOrder) {
+            if (!board.canPlay(col)) {
+                continue;
+            }
+            board.drop(col);
+            evaluator.drop(col);
+            int score = -negamax(depth - 1, -beta, -alpha);
+            evaluator.undo(col);
+            board.undo(col);
+            if (score >= beta) {
+                return score;
+            }
+            alpha = Math.max(alpha, score);
+        }
+        return alpha;
+    }
+
+    public int maxDepth() {
+        return maxDepth;
+    }
+}
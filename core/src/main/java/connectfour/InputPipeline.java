@@ -0,0 +1,170 @@
+package connectfour;
+
+import java.io.*;
+import java.nio.channels.*;
+import java.nio.charset.Charset;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Reads the player's input on its own thread and hands it to the game loop
+ * as events.
+ *
+ * Every line becomes one Event: a MOVE if it is a whole number, an ANSWER
+ * otherwise, and END once the input is closed. What an answer means depends
+ * on the question, so each question looks at the answer's first letter
+ * itself ('n' is "no" to one and "new" to the other), and the player's name
+ * is the answer's text. Lines are parsed as they arrive and wait in a queue,
+ * so what is typed while the bot thinks is kept in order, and one line is
+ * one answer: nothing is left over for the next question the way
+ * Scanner.nextInt leaves the end of the line.
+ *
+ * The game loop takes events with take().
+ */
+public class InputPipeline implements Closeable {
+
+    // constants
+    static final int QUEUE_CAPACITY = 256; // lines read ahead before the reader waits
+
+    /**
+     * One line of input.
+     */
+    public static final class Event {
+
+        public enum Kind { MOVE, ANSWER, END }
+
+        // constants
+        static final Event END = new Event(Kind.END, "", 0);
+
+        // variables
+        private final Kind kind;
+        private final String text;
+        private final int column; // only for MOVE
+
+        private Event(Kind kind, String text, int column) {
+            this.kind = kind;
+            this.text = text;
+            this.column = column;
+        }
+
+        /*---------------------------------------------------------------------------
+        | Event parse()                                                             |
+        |---------------------------------------------------------------------------|
+        | returns Event: A MOVE if the line is a whole number, an ANSWER if not.    |
+        |---------------------------------------------------------------------------|
+        | line: One line of input, without the line break.                          |
+        ---------------------------------------------------------------------------*/
+        static Event parse(String line) {
+            String text = line.trim();
+            try {
+                return new Event(Kind.MOVE, text, Integer.parseInt(text));
+            } catch (NumberFormatException e) {
+                return new Event(Kind.ANSWER, text, 0);
+            }
+        }
+
+        public Kind kind() {
+            return kind;
+        }
+
+        public String text() {
+            return text; // the line as typed, without the spaces around it
+        }
+
+        public int column() {
+            return column; // as typed, from 1
+        }
+
+        public char letter() {
+            return text.isEmpty() ? 0 : Character.toLowerCase(text.charAt(0)); // the answer's first letter, 0 if blank
+        }
+
+        @Override
+        public String toString() {
+            return kind + " " + text;
+        }
+    }
+
+    // variables
+    private final BufferedReader reader;
+    private final BlockingQueue<Event> events = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final Thread thread;
+    private volatile boolean ended; // END was taken, every later take returns END right away
+
+    public InputPipeline(InputStream in) {
+        this.reader = new BufferedReader(new InputStreamReader(in, Charset.defaultCharset()));
+        this.thread = new Thread(this::read, "console-input");
+        thread.setDaemon(true); // a player who never types doesn't keep the program running
+        thread.start();
+    }
+
+    public InputPipeline(ReadableByteChannel channel) {
+        this(Channels.newInputStream(channel));
+    }
+
+    /*---------------------------------------------------------------------------
+    | InputPipeline fromProperties()                                            |
+    |---------------------------------------------------------------------------|
+    | returns InputPipeline: The lines of the file connectfour.input if it is   |
+    |                        set, like a scripted game to train a class data    |
+    |                        sharing archive with, or else System.in.           |
+    ---------------------------------------------------------------------------*/
+    public static InputPipeline fromProperties() throws IOException {
+        String file = System.getProperty("connectfour.input");
+        if (file == null) {
+            return new InputPipeline(System.in);
+        }
+        return new InputPipeline(FileChannel.open(Paths.get(file), StandardOpenOption.READ));
+    }
+
+    // the reader thread: one event per line, then END
+    private void read() {
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                events.put(Event.parse(line));
+            }
+        } catch (IOException e) {
+            // a broken input ends it like a closed one
+        } catch (InterruptedException ie) {
+            return; // closed
+        }
+        try {
+            events.put(Event.END);
+        } catch (InterruptedException ie) {
+            // closed
+        }
+    }
+
+    /*---------------------------------------------------------------------------
+    | Event take()                                                              |
+    |---------------------------------------------------------------------------|
+    | returns Event: The next line, waiting for it if needed. After the END     |
+    |                event every call returns END.                              |
+    ---------------------------------------------------------------------------*/
+    public Event take() {
+        if (ended) {
+            return Event.END;
+        }
+        try {
+            return track(events.take());
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            return Event.END;
+        }
+    }
+
+    private Event track(Event event) {
+        if (event.kind() == Event.Kind.END) {
+            ended = true;
+        }
+        return event;
+    }
+
+    @Override
+    public void close() throws IOException {
+        thread.interrupt();
+        reader.close();
+    }
+}
@@ -0,0 +1,148 @@
+package connectfour;
+
+import java.util.concurrent.atomic.*;
+
+/**
+ * A latency histogram in the style of HdrHistogram: fixed memory, any number
+ * of threads recording at once, and percentiles that are within about 6% of
+ * the real value from one nanosecond to hours.
+ *
+ * Values below 32 get a bucket each. Above that, every power of two is split
+ * into 16 buckets of the same width, so a bucket is never wider than 1/16 of
+ * the values in it. Recording is a few shifts and one atomic increment.
+ */
+public class LatencyHistogram implements LatencyHistogramMXBean {
+
+    // constants
+    private static final int SUB_BUCKETS = 16;
+    private static final int LINEAR = 2 * SUB_BUCKETS; // values below this get their own bucket
+    private static final int BUCKETS = LINEAR + (63 - 5) * SUB_BUCKETS;
+
+    // variables
+    private final String name;
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder total = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    public LatencyHistogram(String name) {
+        this.name = name;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    /*---------------------------------------------------------------------------
+    | void record()                                                             |
+    |---------------------------------------------------------------------------|
+    | nanos: How long the timed call took. Negative values count as 0.          |
+    ---------------------------------------------------------------------------*/
+    public void record(long nanos) {
+        nanos = Math.max(nanos, 0);
+        counts.getAndIncrement(bucket(nanos));
+        total.add(nanos);
+        if (nanos > max.get()) {
+            max.accumulateAndGet(nanos, Math::max);
+        }
+    }
+
+    static int bucket(long value) {
+        if (value < LINEAR) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value); // 5 and up
+        int top = (int) (value >>> (exponent - 4)); // the 5 highest bits, 16 to 31
+        return LINEAR + (exponent - 5) * SUB_BUCKETS + (top - SUB_BUCKETS);
+    }
+
+    static long highestValueIn(int bucket) {
+        if (bucket < LINEAR) {
+            return bucket;
+        }
+        int exponent = (bucket - LINEAR) / SUB_BUCKETS + 5;
+        long top = (bucket - LINEAR) % SUB_BUCKETS + SUB_BUCKETS;
+        return ((top + 1) << (exponent - 4)) - 1;
+    }
+
+    @Override
+    public long getCount() {
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            count += counts.get(i);
+        }
+        return count;
+    }
+
+    /*---------------------------------------------------------------------------
+    | long percentile()                                                         |
+    |---------------------------------------------------------------------------|
+    | returns long: The latency in nanoseconds that the given percent of the    |
+    |               recorded values are at or below, 0 if nothing was recorded. |
+    |---------------------------------------------------------------------------|
+    | percent: From 0 to 100, like 99.9.                                        |
+    ---------------------------------------------------------------------------*/
+    public long percentile(double percent) {
+        // variables
+        long count = getCount();
+        long rank = Math.max(1, (long) Math.ceil(count * percent / 100));
+        long seen = 0;
+
+        if (count == 0) {
+            return 0;
+        }
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(highestValueIn(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    @Override
+    public double getMeanMicros() {
+        long count = getCount();
+        return count == 0 ? 0 : total.sum() / 1e3 / count;
+    }
+
+    @Override
+    public double getP50Micros() {
+        return percentile(50) / 1e3;
+    }
+
+    @Override
+    public double getP90Micros() {
+        return percentile(90) / 1e3;
+    }
+
+    @Override
+    public double getP99Micros() {
+        return percentile(99) / 1e3;
+    }
+
+    @Override
+    public double getP999Micros() {
+        return percentile(99.9) / 1e3;
+    }
+
+    @Override
+    public double getMaxMicros() {
+        return max.get() / 1e3;
+    }
+
+    @Override
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+        total.reset();
+        max.set(0);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%-16s count %d, mean %.1f us, p50 %.1f us, p90 %.1f us, p99 %.1f us, p99.9 %.1f us, max %.1f us",
+                name, getCount(), getMeanMicros(), getP50Micros(), getP90Micros(), getP99Micros(), getP999Micros(),
+                getMaxMicros());
+    }
+}
@@ -0,0 +1,24 @@
+package connectfour;
+
+/**
+ * What JMX clients (jconsole, a monitoring agent) see of a LatencyHistogram.
+ * Latencies are in microseconds.
+ */
+public interface LatencyHistogramMXBean {
+
+    long getCount();
+
+    double getMeanMicros();
+
+    double getP50Micros();
+
+    double getP90Micros();
+
+    double getP99Micros();
+
+    double getP999Micros();
+
+    double getMaxMicros();
+
+    void reset();
+}
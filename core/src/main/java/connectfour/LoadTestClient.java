@@ -0,0 +1,172 @@
+package connectfour;
+
+import java.io.*;
+import java.net.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Drives a GameServer with many simultaneous sessions and reports how long
+ * MOVE commands take.
+ *
+ * Every session connects first and waits until all of them are connected, so
+ * the sessions really are open at the same time. Then each one plays its games
+ * with random legal moves, keeping its own copy of the board so it knows which
+ * columns are full, and times every MOVE from sending it to reading the reply.
+ *
+ * Usage: java connectfour.LoadTestClient [sessions] [games per session] [port] [seed]
+ */
+public class LoadTestClient {
+
+    public static void main(String[] args) throws InterruptedException {
+        // variables and constants
+        int sessions = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+        int games = args.length > 1 ? Integer.parseInt(args[1]) : 1;
+        int port = args.length > 2 ? Integer.parseInt(args[2]) : GameServer.DEFAULT_PORT;
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : 1;
+        CountDownLatch connected = new CountDownLatch(sessions);
+        Queue<long[]> latencies = new ConcurrentLinkedQueue<>();
+        AtomicInteger failures = new AtomicInteger();
+        ExecutorService executor = Threads.newPerTaskExecutor("load-test-session");
+        long start = System.nanoTime();
+        double seconds;
+
+        for (int i = 0; i < sessions; i++) {
+            int session = i;
+            executor.execute(() -> {
+                try {
+                    latencies.add(runSession(port, session, games, new SplittableRandom(seed * 1_000_003L + session), connected));
+                } catch (IOException | RuntimeException e) {
+                    if (failures.incrementAndGet() <= 5) {
+                        System.out.println("Uh oh! Session " + session + ": " + e);
+                    }
+                }
+            });
+        }
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.HOURS);
+        seconds = (System.nanoTime() - start) / 1e9;
+
+        report(sessions, failures.get(), seconds, latencies);
+    }
+
+    /*---------------------------------------------------------------------------
+    | long[] runSession()                                                       |
+    |---------------------------------------------------------------------------|
+    | returns long[]: The nanoseconds every MOVE of the session took.           |
+    |---------------------------------------------------------------------------|
+    | port: The server port.                                                    |
+    | session: The session number, used for the player name.                    |
+    | games: How many games to play.                                            |
+    | random: Picks the moves.                                                  |
+    | connected: Counted down once connected, then waited on until every        |
+    |            session is connected. A session that fails before it is        |
+    |            connected counts down too, so the others don't wait forever.   |
+    ---------------------------------------------------------------------------*/
+    static long[] runSession(int port, int session, int games, SplittableRandom random, CountDownLatch connected)
+            throws IOException {
+        // variables
+        boolean counted = false; // this session has counted down connected
+
+        try {
+            Board board = Board.fromProperties(); // run with the server's connectfour.cols, rows and connect
+            long[] times = new long[games * (board.size() + 1) / 2];
+            int count = 0;
+
+            try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port);
+                 BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+                 PrintWriter out = new PrintWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8), true)) {
+                socket.setTcpNoDelay(true);
+                connected.countDown();
+                counted = true;
+                try {
+                    connected.await();
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return Arrays.copyOf(times, count);
+                }
+
+                for (int game = 0; game < games; game++) {
+                    expect(send(out, in, "JOIN load-" + session), "OK");
+                    board.reset();
+                    String[] reply;
+                    do {
+                        int col;
+                        do {
+                            col = random.nextInt(board.width());
+                        } while (!board.canPlay(col));
+
+                        long sent = System.nanoTime();
+                        reply = expect(send(out, in, "MOVE " + (col + 1)), "MOVED").split(" ");
+                        times[count++] = System.nanoTime() - sent;
+
+                        board.drop(col);
+                        if (!reply[2].equals("-")) {
+                            board.drop(Integer.parseInt(reply[2]) - 1);
+                        }
+                    } while (reply[3].equals(GameResult.NOT_OVER.name()));
+                }
+                send(out, in, "QUIT");
+            }
+            return Arrays.copyOf(times, count);
+        } finally {
+            if (!counted) {
+                connected.countDown(); // it couldn't connect, don't keep the other sessions waiting
+            }
+        }
+    }
+
+    private static String send(PrintWriter out, BufferedReader in, String command) throws IOException {
+        out.println(command);
+        String reply = in.readLine();
+        if (reply == null) {
+            throw new EOFException("server closed the connection after " + command);
+        }
+        return reply;
+    }
+
+    private static String expect(String reply, String start) throws IOException {
+        if (!reply.startsWith(start)) {
+            throw new IOException("unexpected reply: " + reply);
+        }
+        return reply;
+    }
+
+    /*---------------------------------------------------------------------------
+    | void report()                                                             |
+    |---------------------------------------------------------------------------|
+    | This program outputs the move latency percentiles of all sessions.        |
+    ---------------------------------------------------------------------------*/
+    static void report(int sessions, int failures, double seconds, Queue<long[]> latencies) {
+        // variables
+        int total = 0;
+        int i = 0;
+        long[] all;
+
+        for (long[] times : latencies) {
+            total += times.length;
+        }
+        all = new long[total];
+        for (long[] times : latencies) {
+            System.arraycopy(times, 0, all, i, times.length);
+            i += times.length;
+        }
+        Arrays.sort(all);
+
+        System.out.printf("%d sessions (%d failed), %d moves in %.2f s (%.0f moves/s)%n",
+                sessions, failures, total, seconds, total / seconds);
+        if (total == 0) {
+            return;
+        }
+        System.out.printf("move latency: p50 %.2f ms, p90 %.2f ms, p99 %.2f ms, p99.9 %.2f ms, max %.2f ms%n",
+                percentile(all, 50) / 1e6, percentile(all, 90) / 1e6, percentile(all, 99) / 1e6,
+                percentile(all, 99.9) / 1e6, all[total - 1] / 1e6);
+    }
+
+    static long percentile(long[] sorted, double percent) {
+        int index = (int) Math.ceil(percent / 100 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+}
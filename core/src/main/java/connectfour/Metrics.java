@@ -0,0 +1,158 @@
+package connectfour;
+
+import java.io.*;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import javax.management.*;
+
+/**
+ * Counters and latency histograms for the game's hot paths.
+ *
+ * Metrics are off unless the JVM is started with -Dconnectfour.metrics=true.
+ * ENABLED is a static final, so when it is false the JIT removes the timing
+ * code at every call site and the game pays nothing for it. A timed call
+ * looks like this:
+ *
+ *   long start = Metrics.start();
+ *   ...
+ *   Metrics.stop(Metrics.botTurn, start);
+ *
+ * When metrics are on, every histogram and counter is registered as an MXBean
+ * under "connectfour:type=...,name=...", so jconsole or a monitoring agent
+ * attached to the JVM can read them. They are also printed when the program
+ * exits, or written to connectfour.metricsFile every connectfour.metricsPeriodMs
+ * milliseconds (10 seconds by default) and at exit.
+ */
+public class Metrics {
+
+    // constants
+    public static final boolean ENABLED = Boolean.getBoolean("connectfour.metrics");
+    static final long DEFAULT_PERIOD_MILLIS = 10_000;
+
+    // variables
+    public static final LatencyHistogram botTurn = new LatencyHistogram("botTurn");
+    public static final LatencyHistogram checkIfGameOver = new LatencyHistogram("checkIfGameOver");
+    public static final LatencyHistogram putChipInBoard = new LatencyHistogram("putChipInBoard");
+    public static final LatencyHistogram statsIo = new LatencyHistogram("outputUserStats");
+    public static final Counter botMoves = new Counter("botMoves");
+    public static final Counter bookMoves = new Counter("bookMoves");
+    public static final Counter solvedMoves = new Counter("solvedMoves");
+    public static final Counter ponderedMoves = new Counter("ponderedMoves");
+    public static final Counter nodes = new Counter("nodes");
+    private static final List<LatencyHistogram> histograms = List.of(botTurn, checkIfGameOver, putChipInBoard, statsIo);
+    private static final List<Counter> counters = List.of(botMoves, bookMoves, solvedMoves, ponderedMoves, nodes);
+
+    static {
+        if (ENABLED) {
+            install(System.getProperty("connectfour.metricsFile"),
+                    Long.getLong("connectfour.metricsPeriodMs", DEFAULT_PERIOD_MILLIS));
+        }
+    }
+
+    /*---------------------------------------------------------------------------
+    | long start()                                                              |
+    |---------------------------------------------------------------------------|
+    | returns long: The time to pass to stop(), or 0 when metrics are off.      |
+    ---------------------------------------------------------------------------*/
+    public static long start() {
+        return ENABLED ? System.nanoTime() : 0;
+    }
+
+    /*---------------------------------------------------------------------------
+    | void stop()                                                               |
+    |---------------------------------------------------------------------------|
+    | histogram: Where the time since start is recorded.                        |
+    | start: What start() returned.                                             |
+    ---------------------------------------------------------------------------*/
+    public static void stop(LatencyHistogram histogram, long start) {
+        if (ENABLED) {
+            histogram.record(System.nanoTime() - start);
+        }
+    }
+
+    public static void count(Counter counter, long amount) {
+        if (ENABLED) {
+            counter.add(amount);
+        }
+    }
+
+    /*---------------------------------------------------------------------------
+    | void install()                                                            |
+    |---------------------------------------------------------------------------|
+    | file: Where the metrics are written, or null to print them at exit.       |
+    | periodMillis: How often the file is rewritten.                            |
+    |---------------------------------------------------------------------------|
+    | This program registers the MXBeans and sets up the dumps. Problems with   |
+    | JMX or the file are printed and the game goes on without them.            |
+    ---------------------------------------------------------------------------*/
+    private static void install(String file, long periodMillis) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            for (LatencyHistogram histogram : histograms) {
+                server.registerMBean(histogram, new ObjectName("connectfour:type=Latency,name=" + histogram.name()));
+            }
+            for (Counter counter : counters) {
+                server.registerMBean(counter, new ObjectName("connectfour:type=Counter,name=" + counter.name()));
+            }
+        } catch (JMException e) {
+            System.out.println("Uh oh! " + e);
+        }
+
+        if (file == null) {
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> dump(System.out), "metrics-exit"));
+            return;
+        }
+        Path path = Paths.get(file);
+        ScheduledExecutorService dumper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "metrics-dump");
+            thread.setDaemon(true);
+            return thread;
+        });
+        dumper.scheduleAtFixedRate(() -> write(path), periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            dumper.shutdownNow();
+            write(path);
+        }, "metrics-exit"));
+    }
+
+    /*---------------------------------------------------------------------------
+    | void write()                                                              |
+    |---------------------------------------------------------------------------|
+    | path: The metrics file. It is replaced in one move, so whoever reads it   |
+    |       never sees half a dump.                                             |
+    ---------------------------------------------------------------------------*/
+    private static void write(Path path) {
+        // variables
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+
+        try {
+            PrintStream out = new PrintStream(bytes, false, StandardCharsets.UTF_8);
+            dump(out);
+            out.flush();
+            Files.write(temp, bytes.toByteArray());
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.out.println("Uh oh! " + e);
+        }
+    }
+
+    /*---------------------------------------------------------------------------
+    | void dump()                                                               |
+    |---------------------------------------------------------------------------|
+    | out: Where every histogram and counter is printed, one per line.          |
+    ---------------------------------------------------------------------------*/
+    public static void dump(PrintStream out) {
+        out.println("----- Metrics -----");
+        for (LatencyHistogram histogram : histograms) {
+            out.println(histogram);
+        }
+        for (Counter counter : counters) {
+            out.println(counter);
+        }
+        out.flush();
+    }
+}
@@ -0,0 +1,242 @@
+package connectfour;
+
+import java.util.Arrays;
+
+/**
+ * The moves of one game, played on a board, with undo and redo.
+ *
+ * Every move is one byte (the column). Playing, undoing and redoing a move
+ * is one drop or undo on the board and an index change, so none of them
+ * copy the board or allocate. Undone moves stay in the log until a different
+ * move is played, which is what makes redo possible.
+ *
+ * A Snapshot is an immutable position: the log's move array and a length. It
+ * shares the array with the log instead of copying the board, and the log
+ * only copies its array when it would overwrite a move a snapshot still uses
+ * (after undoing past a snapshot and playing something else). A snapshot can
+ * rebuild its position on any board of the same variant, so tools that
+ * replay many positions can reuse one board.
+ *
+ * Move strings are the ones Board.playMoves reads: one character per move,
+ * '1' for the first column. Columns past the ninth follow '9' in ASCII
+ * (':', ';', ...), so every board size can be written out and read back.
+ */
+public class MoveLog {
+
+    // variables
+    private final Board board;
+    private byte[] moves;
+    private int length; // moves played on the board
+    private int end; // moves that can be redone end here
+    private int shared; // moves before this index may be used by a snapshot
+
+    /*---------------------------------------------------------------------------
+    | MoveLog()                                                                 |
+    |---------------------------------------------------------------------------|
+    | board: The board the moves are played on. It is emptied, and from then    |
+    |        on should only be changed through the log.                         |
+    ---------------------------------------------------------------------------*/
+    public MoveLog(Board board) {
+        this.board = board;
+        this.moves = new byte[board.size()];
+        board.reset();
+    }
+
+    public Board board() {
+        return board;
+    }
+
+    /*---------------------------------------------------------------------------
+    | void play()                                                               |
+    |---------------------------------------------------------------------------|
+    | col: The column, from 0. It must not be full.                             |
+    |---------------------------------------------------------------------------|
+    | This program drops a disc for the player to move and logs it. Moves that  |
+    | were undone can't be redone any more, unless this is the same move.       |
+    ---------------------------------------------------------------------------*/
+    public void play(int col) {
+        if (col < 0 || col >= board.width() || !board.canPlay(col)) {
+            throw new IllegalArgumentException("column " + (col + 1) + " can't be played");
+        }
+        board.drop(col);
+        if (length < end && moves[length] == col) {
+            length++; // the same as redo, so the rest of the undone moves are kept
+            return;
+        }
+        if (length < shared) {
+            moves = Arrays.copyOf(moves, moves.length); // a snapshot still needs the old moves
+            shared = 0;
+        }
+        moves[length++] = (byte) col;
+        end = length;
+    }
+
+    /*---------------------------------------------------------------------------
+    | boolean undo()                                                            |
+    |---------------------------------------------------------------------------|
+    | returns boolean: False if there was no move to undo.                      |
+    ---------------------------------------------------------------------------*/
+    public boolean undo() {
+        if (length == 0) {
+            return false;
+        }
+        board.undo(moves[--length]);
+        return true;
+    }
+
+    /*---------------------------------------------------------------------------
+    | boolean redo()                                                            |
+    |---------------------------------------------------------------------------|
+    | returns boolean: False if there was no undone move to play again.         |
+    ---------------------------------------------------------------------------*/
+    public boolean redo() {
+        if (length == end) {
+            return false;
+        }
+        board.drop(moves[length++]);
+        return true;
+    }
+
+    public int length() {
+        return length;
+    }
+
+    public int lastMove() {
+        return length == 0 ? -1 : moves[length - 1]; // column from 0, -1 before the first move
+    }
+
+    public boolean canRedo() {
+        return length < end;
+    }
+
+    /*---------------------------------------------------------------------------
+    | Snapshot snapshot()                                                       |
+    |---------------------------------------------------------------------------|
+    | returns Snapshot: The position now, sharing the log's moves.              |
+    ---------------------------------------------------------------------------*/
+    public Snapshot snapshot() {
+        shared = Math.max(shared, length);
+        return new Snapshot(moves, length);
+    }
+
+    /*---------------------------------------------------------------------------
+    | void restore()                                                            |
+    |---------------------------------------------------------------------------|
+    | snapshot: A position of the same variant, from this log or another one.   |
+    |---------------------------------------------------------------------------|
+    | This program puts the board back to the snapshot. The snapshot's moves    |
+    | are shared until the next play, and there is nothing to redo afterwards.  |
+    ---------------------------------------------------------------------------*/
+    public void restore(Snapshot snapshot) {
+        snapshot.applyTo(board);
+        moves = snapshot.moves;
+        length = snapshot.length;
+        end = length;
+        shared = Integer.MAX_VALUE; // other snapshots may use any of the array, so the next play copies it
+    }
+
+    /*---------------------------------------------------------------------------
+    | void playMoves()                                                          |
+    |---------------------------------------------------------------------------|
+    | moveString: A move string like "4453", played from an empty board.        |
+    |---------------------------------------------------------------------------|
+    | This program starts the log over with the moves. It throws an             |
+    | IllegalArgumentException, with the log empty again, if a move is not a    |
+    | column, the column is full or the game was already won.                   |
+    ---------------------------------------------------------------------------*/
+    public void playMoves(CharSequence moveString) {
+        board.reset();
+        length = 0;
+        end = 0;
+        for (int i = 0; i < moveString.length(); i++) {
+            int col = moveString.charAt(i) - '1';
+            if (col < 0 || col >= board.width() || !board.canPlay(col)
+                    || (board.isWinningMove(col) && i < moveString.length() - 1)) {
+                board.reset();
+                length = 0;
+                end = 0;
+                throw new IllegalArgumentException("illegal move " + moveString.charAt(i) + " at " + (i + 1) + " in "
+                        + moveString);
+            }
+            play(col);
+        }
+    }
+
+    /*---------------------------------------------------------------------------
+    | String toString()                                                         |
+    |---------------------------------------------------------------------------|
+    | returns String: The moves played so far as a move string.                 |
+    ---------------------------------------------------------------------------*/
+    @Override
+    public String toString() {
+        return Snapshot.moveString(moves, length);
+    }
+
+    /**
+     * A position as the moves that lead to it. Snapshots never change, so they
+     * can be kept, shared between threads and used as map keys.
+     */
+    public static final class Snapshot {
+
+        // variables
+        private final byte[] moves; // only the first length moves belong to the snapshot
+        private final int length;
+
+        private Snapshot(byte[] moves, int length) {
+            this.moves = moves;
+            this.length = length;
+        }
+
+        public int length() {
+            return length;
+        }
+
+        public int move(int i) {
+            return moves[i]; // column from 0
+        }
+
+        /*---------------------------------------------------------------------------
+        | void applyTo()                                                            |
+        |---------------------------------------------------------------------------|
+        | board: A board of the snapshot's variant. It is emptied and the moves are |
+        |        played on it.                                                      |
+        ---------------------------------------------------------------------------*/
+        public void applyTo(Board board) {
+            board.reset();
+            for (int i = 0; i < length; i++) {
+                board.drop(moves[i]);
+            }
+        }
+
+        static String moveString(byte[] moves, int length) {
+            char[] chars = new char[length];
+            for (int i = 0; i < length; i++) {
+                chars[i] = (char) ('1' + moves[i]);
+            }
+            return new String(chars);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Snapshot)) {
+                return false;
+            }
+            Snapshot other = (Snapshot) o;
+            return length == other.length && Arrays.equals(moves, 0, length, other.moves, 0, length);
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = length;
+            for (int i = 0; i < length; i++) {
+                hash = 31 * hash + moves[i];
+            }
+            return hash;
+        }
+
+        @Override
+        public String toString() {
+            return moveString(moves, length);
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package connectfour;
+
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+
+/**
+ * Opening book: the best move for positions near the start of the game.
+ *
+ * The book file is a 16 byte header followed by one long per position, sorted
+ * so a position can be found with a binary search:
+ *
+ *   header  int magic ("C4BK"), int version, int plies, int number of records
+ *   record  key (Board.canonicalKey()) << 12 | (score + 64) << 4 | best column
+ *
+ * A position and its mirror image are one record, so the book is about half
+ * the size. The best column is the one for the position whose key is the
+ * smaller one, and is flipped for the other.
+ *
+ * Loading maps the file with FileChannel.map and only reads the header, so a
+ * big book costs nothing at startup and lookups read straight from the page
+ * cache. OpeningBookGenerator writes the files. The jar can also carry a
+ * small book as the resource connectfour/opening.book (the startup build
+ * profile generates it), which is read into memory when there is no book
+ * file, so the bot's first moves are looked up instead of searched on a
+ * JVM that has not compiled the search yet.
+ */
+public class OpeningBook {
+
+    // constants
+    static final int MAGIC = 0x43344B42; // "C4BK"
+    static final int VERSION = 2; // 1 kept a record for each mirror image
+    static final int HEADER_BYTES = 16;
+    private static final int KEY_SHIFT = 12;
+
+    // variables
+    private final ByteBuffer records; // mapped from the file, or the resource read into memory
+    private final int plies;
+    private final int count;
+
+    private OpeningBook(ByteBuffer records, int plies, int count) {
+        this.records = records;
+        this.plies = plies;
+        this.count = count;
+    }
+
+    /*---------------------------------------------------------------------------
+    | OpeningBook load()                                                        |
+    |---------------------------------------------------------------------------|
+    | returns OpeningBook: The book, mapped into memory.                        |
+    |---------------------------------------------------------------------------|
+    | path: The book file.                                                      |
+    |---------------------------------------------------------------------------|
+    | This program throws an IOException if the file can't be read or is not a  |
+    | book file.                                                                |
+    ---------------------------------------------------------------------------*/
+    public static OpeningBook load(Path path) throws IOException {
+        // variables
+        MappedByteBuffer buffer;
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()); // the mapping stays valid after closing
+        }
+        return fromBuffer(buffer, path.toString());
+    }
+
+    /*---------------------------------------------------------------------------
+    | OpeningBook loadResource()                                                |
+    |---------------------------------------------------------------------------|
+    | returns OpeningBook: The book packed in the jar (connectfour/opening.book |
+    |                      on the class path), or null if there is none.        |
+    ---------------------------------------------------------------------------*/
+    public static OpeningBook loadResource() throws IOException {
+        try (InputStream in = OpeningBook.class.getResourceAsStream("opening.book")) {
+            return in == null ? null : fromBuffer(ByteBuffer.wrap(in.readAllBytes()), "the opening.book resource");
+        }
+    }
+
+    // checks the header and wraps the records
+    private static OpeningBook fromBuffer(ByteBuffer buffer, String source) throws IOException {
+        // variables
+        int plies;
+        int count;
+
+        buffer.order(ByteOrder.BIG_ENDIAN);
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+            throw new IOException(source + " is not an opening book");
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IOException(source + " has book version " + buffer.getInt(4) + ", expected " + VERSION);
+        }
+        plies = buffer.getInt(8);
+        count = buffer.getInt(12);
+        if ((long) HEADER_BYTES + (long) count * Long.BYTES != buffer.capacity()) {
+            throw new IOException(source + " is cut off or too long for " + count + " records");
+        }
+        return new OpeningBook(buffer, plies, count);
+    }
+
+    /*---------------------------------------------------------------------------
+    | OpeningBook loadDefault()                                                 |
+    |---------------------------------------------------------------------------|
+    | returns OpeningBook: The book named by connectfour.book (opening.book by  |
+    |                      default). Without that file it is the book packed in |
+    |                      the jar, if there is one. Null if there is no book,  |
+    |                      or if connectfour.book is "none".                    |
+    ---------------------------------------------------------------------------*/
+    public static OpeningBook loadDefault() throws IOException {
+        String file = System.getProperty("connectfour.book", "opening.book");
+        if (file.equals("none")) {
+            return null;
+        }
+        Path path = Paths.get(file);
+        if (!Files.isRegularFile(path)) {
+            return loadResource();
+        }
+        return load(path);
+    }
+
+    /*---------------------------------------------------------------------------
+    | long probe()                                                              |
+    |---------------------------------------------------------------------------|
+    | returns long: The record for the position, or 0 if it is not in the book. |
+    |---------------------------------------------------------------------------|
+    | key: The position key (Board.canonicalKey()).                             |
+    ---------------------------------------------------------------------------*/
+    public long probe(long key) {
+        // variables
+        int low = 0;
+        int high = count - 1;
+
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long record = records.getLong(HEADER_BYTES + mid * Long.BYTES);
+            long midKey = record >>> KEY_SHIFT;
+            if (midKey < key) {
+                low = mid + 1;
+            } else if (midKey > key) {
+                high = mid - 1;
+            } else {
+                return record;
+            }
+        }
+        return 0;
+    }
+
+    /*---------------------------------------------------------------------------
+    | int bestMove()                                                            |
+    |---------------------------------------------------------------------------|
+    | returns int: The book's column (0 to 6) for the position, or -1 if the    |
+    |              position is not in the book. The book only has positions     |
+    |              of the usual 7 x 6 game.                                     |
+    |---------------------------------------------------------------------------|
+    | board: The position.                                                      |
+    ---------------------------------------------------------------------------*/
+    public int bestMove(Board board) {
+        if (!(board instanceof BitBoard) || board.moves() > plies) {
+            return -1;
+        }
+        // variables
+        long key = board.key();
+        long mirrorKey = board.mirrorKey();
+        long record = probe(Math.min(key, mirrorKey));
+
+        if (record == 0) {
+            return -1;
+        }
+        return mirrorKey < key ? BitBoard.WIDTH - 1 - move(record) : move(record);
+    }
+
+    /*---------------------------------------------------------------------------
+    | long record()                                                             |
+    |---------------------------------------------------------------------------|
+    | returns long: A book record. It is never 0, because score + 64 > 0.       |
+    ---------------------------------------------------------------------------*/
+    public static long record(long key, int score, int move) {
+        return (key << KEY_SHIFT) | ((long) (score + 64) << 4) | move;
+    }
+
+    public static int score(long record) {
+        return (int) (record >>> 4 & 0xFF) - 64;
+    }
+
+    public static int move(long record) {
+        return (int) (record & 0xF);
+    }
+
+    /*---------------------------------------------------------------------------
+    | void write()                                                              |
+    |---------------------------------------------------------------------------|
+    | path: The book file to create (or overwrite).                             |
+    | plies: The deepest position in the book, in moves.                        |
+    | sortedRecords: The records, sorted and with no key twice.                 |
+    | count: How many of the records to write.                                  |
+    ---------------------------------------------------------------------------*/
+    public static void write(Path path, int plies, long[] sortedRecords, int count) throws IOException {
+        // variables
+        ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            buffer.putInt(MAGIC).putInt(VERSION).putInt(plies).putInt(count);
+            for (int i = 0; i < count; i++) {
+                if (!buffer.hasRemaining()) {
+                    writeFully(channel, buffer);
+                }
+                buffer.putLong(sortedRecords[i]);
+            }
+            writeFully(channel, buffer);
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    public int plies() {
+        return plies;
+    }
+
+    public int size() {
+        return count;
+    }
+}
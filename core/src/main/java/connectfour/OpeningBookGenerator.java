@@ -0,0 +1,96 @@
+package connectfour;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * Builds an opening book file for OpeningBook.
+ *
+ * Every position that can be reached in up to N moves (and where the game is
+ * not already over) is searched once; positions reached by different move
+ * orders, and mirror images of positions already searched, are skipped. A
+ * position is solved exactly when the depth reaches the end of the game,
+ * otherwise the book holds the engine's move at that depth.
+ *
+ * Usage: java connectfour.OpeningBookGenerator [plies] [depth] [threads] [file]
+ */
+public class OpeningBookGenerator {
+
+    // variables
+    private final ParallelSearch search;
+    private final int plies;
+    private final Set<Long> seen = new HashSet<>();
+    private long[] records = new long[1024];
+    private int count;
+
+    OpeningBookGenerator(ParallelSearch search, int plies) {
+        this.search = search;
+        this.plies = plies;
+    }
+
+    public static void main(String[] args) throws IOException {
+        // variables and constants
+        int plies = args.length > 0 ? Integer.parseInt(args[0]) : 6;
+        int depth = args.length > 1 ? Integer.parseInt(args[1]) : 16;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        Path path = Paths.get(args.length > 3 ? args[3] : "opening.book");
+        long start = System.nanoTime();
+        OpeningBookGenerator generator;
+
+        try (ParallelSearch search = new ParallelSearch(threads, depth, 0, new TranspositionTable(256L << 20))) {
+            generator = new OpeningBookGenerator(search, plies);
+            generator.visit(new BitBoard());
+        }
+        generator.write(path);
+        System.out.printf("%d positions up to %d plies written to %s in %.1f s%n",
+                generator.count, plies, path, (System.nanoTime() - start) / 1e9);
+    }
+
+    /*---------------------------------------------------------------------------
+    | void visit()                                                              |
+    |---------------------------------------------------------------------------|
+    | board: The position to add. Every move after it is visited too, until     |
+    |        the book is deep enough.                                           |
+    ---------------------------------------------------------------------------*/
+    void visit(BitBoard board) {
+        // variables
+        long key = board.key();
+        long mirrorKey = board.mirrorKey();
+        SearchResult result;
+
+        if (!seen.add(Math.min(key, mirrorKey))) {
+            return;
+        }
+        result = search.search(board);
+        if (mirrorKey < key) {
+            add(OpeningBook.record(mirrorKey, result.score, BitBoard.WIDTH - 1 - result.bestMove));
+        } else {
+            add(OpeningBook.record(key, result.score, result.bestMove));
+        }
+
+        if (board.moves() == plies) {
+            return;
+        }
+        for (int col = 0; col < BitBoard.WIDTH; col++) {
+            // only keep going into positions where the game is not over
+            if (board.canPlay(col) && !board.isWinningMove(col)) {
+                board.drop(col);
+                visit(board);
+                board.undo(col);
+            }
+        }
+    }
+
+    private void add(long record) {
+        if (count == records.length) {
+            records = Arrays.copyOf(records, count * 2);
+        }
+        records[count++] = record;
+    }
+
+    void write(Path path) throws IOException {
+        Arrays.sort(records, 0, count);
+        OpeningBook.write(path, plies, records, count);
+    }
+}
@@ -0,0 +1,169 @@
+package connectfour;
+
+import java.util.concurrent.*;
+
+/**
+ * Lazy SMP search: several threads search the same position at the same time.
+ *
+ * Every thread has its own SearchEngine and its own copy of the board, and all
+ * of them share one lock-free transposition table. The threads do not split the
+ * work up between them; they just fill the table for each other, so whichever
+ * thread gets to a position second finds it already searched. Helper threads
+ * start their iterative deepening at depth 1 or 2 and try the columns at the
+ * root in a different order each (helper i starts i / 2 places along the
+ * center-first order), so they do not all walk the same tree in the same
+ * order. The calling thread's result is the answer, and the helpers are
+ * stopped as soon as it is done.
+ *
+ * With one thread this is just a SearchEngine and no pool is created.
+ */
+public class ParallelSearch implements AutoCloseable {
+
+    // variables
+    private final SearchEngine[] engines; // engines[0] runs on the calling thread
+    private final Board[] boards; // each thread's copy, made again when the variant changes
+    private final Future<?>[] helpers;
+    private final ExecutorService pool;
+    private final TranspositionTable table;
+
+    /*---------------------------------------------------------------------------
+    | ParallelSearch()                                                          |
+    |---------------------------------------------------------------------------|
+    | threads: How many threads search, counting the calling thread.            |
+    | maxDepth: The deepest the search goes, in moves.                          |
+    | timeBudgetMillis: How long one search may take. 0 means no limit.         |
+    | table: The transposition table all threads share.                         |
+    ---------------------------------------------------------------------------*/
+    public ParallelSearch(int threads, int maxDepth, long timeBudgetMillis, TranspositionTable table) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must be at least 1: " + threads);
+        }
+        if (threads > 1 && table == null) {
+            throw new IllegalArgumentException("a parallel search needs a shared transposition table");
+        }
+        this.table = table;
+        engines = new SearchEngine[threads];
+        boards = new Board[threads];
+        helpers = new Future<?>[threads];
+        for (int i = 0; i < threads; i++) {
+            engines[i] = new SearchEngine(maxDepth, timeBudgetMillis, table);
+            engines[i].rotateRootOrder(i / 2); // the main thread and the first helper keep the usual order
+        }
+        if (threads > 1) {
+            pool = Executors.newFixedThreadPool(threads - 1, runnable -> {
+                Thread thread = new Thread(runnable, "search-helper");
+                thread.setDaemon(true);
+                return thread;
+            });
+        } else {
+            pool = null;
+        }
+    }
+
+    /*---------------------------------------------------------------------------
+    | SearchResult search()                                                     |
+    |---------------------------------------------------------------------------|
+    | returns SearchResult: The best column for the player to move. The node    |
+    |                       count adds up the nodes of every thread.            |
+    |---------------------------------------------------------------------------|
+    | position: The position to search. It is not changed.                      |
+    ---------------------------------------------------------------------------*/
+    public SearchResult search(Board position) {
+        // variables
+        long start = System.nanoTime();
+        SearchResult main;
+        long nodes;
+        boolean interrupted = false;
+        Throwable failure = null;
+
+        if (pool == null) {
+            return engines[0].search(position);
+        }
+
+        // clear every stop request before any thread starts, so a stop() from now on reaches all of them
+        for (SearchEngine engine : engines) {
+            engine.clearStop();
+        }
+        table.newSearch();
+        for (int i = 1; i < engines.length; i++) {
+            SearchEngine engine = engines[i];
+            Board board = copyOf(i, position);
+            int firstDepth = 1 + (i & 1); // half the helpers are one move ahead
+            helpers[i] = pool.submit(() -> engine.search(board, firstDepth));
+        }
+
+        main = engines[0].search(copyOf(0, position), 1);
+
+        // the main thread is done, so the helpers' work is not needed any more
+        nodes = main.nodes;
+        for (int i = 1; i < engines.length; i++) {
+            engines[i].stop();
+        }
+        // wait for every helper, interrupted or not: the next search reuses their engines and boards
+        for (int i = 1; i < engines.length; i++) {
+            while (true) {
+                try {
+                    nodes += ((SearchResult) helpers[i].get()).nodes;
+                    break;
+                } catch (InterruptedException ie) {
+                    interrupted = true; // the helper was asked to stop, so this wait is short
+                } catch (ExecutionException ee) {
+                    failure = failure == null ? ee.getCause() : failure;
+                    break;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        if (failure != null) {
+            throw new IllegalStateException("search helper failed", failure);
+        }
+        return new SearchResult(main.bestMove, main.score, main.depth, nodes, System.nanoTime() - start);
+    }
+
+    /*---------------------------------------------------------------------------
+    | Board copyOf()                                                            |
+    |---------------------------------------------------------------------------|
+    | returns Board: Thread i's board, set to the position.                     |
+    |---------------------------------------------------------------------------|
+    | This program reuses the thread's board unless the position is another     |
+    | kind or size of board.                                                    |
+    ---------------------------------------------------------------------------*/
+    private Board copyOf(int i, Board position) {
+        Board board = boards[i];
+        if (board == null || board.getClass() != position.getClass() || board.width() != position.width()
+                || board.height() != position.height() || board.connect() != position.connect()) {
+            boards[i] = position.copy();
+        } else {
+            board.copyFrom(position);
+        }
+        return boards[i];
+    }
+
+    /*---------------------------------------------------------------------------
+    | void stop()                                                               |
+    |---------------------------------------------------------------------------|
+    | This program asks a running search (on another thread) to stop soon.      |
+    ---------------------------------------------------------------------------*/
+    public void stop() {
+        for (SearchEngine engine : engines) {
+            engine.stop();
+        }
+    }
+
+    public int threads() {
+        return engines.length;
+    }
+
+    public TranspositionTable table() {
+        return table;
+    }
+
+    @Override
+    public void close() {
+        if (pool != null) {
+            pool.shutdownNow();
+        }
+    }
+}
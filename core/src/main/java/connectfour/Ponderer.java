@@ -0,0 +1,227 @@
+package connectfour;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Predicate;
+
+/**
+ * Thinks on the player's time: while the player chooses a move, a background
+ * thread searches the position after every reply they could make.
+ *
+ * The replies are searched one move deeper at a time in turns (all of them to
+ * depth 1, then all to depth 2, ...), center columns first, so whichever one
+ * the player picks has been looked at about as deep as the others. Every
+ * reply has its own engine, which goes one depth further each turn, and the
+ * searches write to the bot's own transposition table. When the player has
+ * moved, take() stops the pondering and returns the reply's result if it was
+ * searched as deep as the bot would search it, and the bot plays that move
+ * right away. Otherwise the bot searches as usual, and finds the depths the
+ * pondering got through already in the table.
+ *
+ * With a time budget the bot has no fixed depth, so the bar is the depth its
+ * last search got to in time (see searched()).
+ *
+ * One daemon thread does all the pondering of a Ponderer, for every move of
+ * every game. Stopping waits until the search has really ended, so the bot
+ * never shares the table or the CPU with a leftover search, and games never
+ * leave threads behind.
+ */
+public class Ponderer implements AutoCloseable {
+
+    // variables
+    private final int maxDepth;
+    private final boolean timed; // the bot has a time budget rather than a depth
+    private final TranspositionTable table;
+    private final ExecutorService thread = Executors.newSingleThreadExecutor(runnable -> {
+        Thread ponder = new Thread(runnable, "ponder");
+        ponder.setDaemon(true);
+        return ponder;
+    });
+    private Board board; // the position being pondered, only touched by the pondering thread while it runs
+    private int[] columnOrder = new int[0];
+    private SearchEngine[] engines = new SearchEngine[0]; // by reply column
+    private SearchResult[] results = new SearchResult[0]; // by reply column, null until one depth is done
+    private long[] keys = new long[0]; // the key of the position after each reply
+    private int baseMoves; // moves in the pondered position
+    private int timedDepth = SearchEngine.NO_DEPTH_LIMIT; // how deep the bot's last timed search got, none yet
+    private long nodes; // searched while pondering, all moves so far
+    private Future<?> task; // null when nothing is pondered
+    private volatile boolean cancelled;
+    private volatile SearchEngine running;
+
+    /*---------------------------------------------------------------------------
+    | Ponderer()                                                                |
+    |---------------------------------------------------------------------------|
+    | maxDepth: The bot's search depth. Pondering never goes deeper.            |
+    | timeBudgetMillis: The bot's time budget per move, 0 for none.             |
+    | table: The bot's transposition table.                                     |
+    ---------------------------------------------------------------------------*/
+    public Ponderer(int maxDepth, long timeBudgetMillis, TranspositionTable table) {
+        this.maxDepth = maxDepth;
+        this.timed = timeBudgetMillis > 0;
+        this.table = table;
+    }
+
+    /*---------------------------------------------------------------------------
+    | void start()                                                              |
+    |---------------------------------------------------------------------------|
+    | position: The position after the bot's move, with the player to move. It  |
+    |           is copied, so the game can go on with it.                       |
+    | searched: Which positions after a reply the bot would search (and not     |
+    |           look up in its opening book or solve), the only ones worth      |
+    |           pondering.                                                      |
+    |---------------------------------------------------------------------------|
+    | This program stops anything pondered before and starts on the position.   |
+    ---------------------------------------------------------------------------*/
+    public void start(Board position, Predicate<Board> searched) {
+        cancel();
+        if (board == null || board.getClass() != position.getClass() || board.width() != position.width()
+                || board.height() != position.height() || board.connect() != position.connect()) {
+            board = position.copy();
+            columnOrder = SearchEngine.columnOrder(position.width());
+            engines = new SearchEngine[position.width()];
+            for (int col = 0; col < engines.length; col++) {
+                engines[col] = new SearchEngine(maxDepth, 0, table);
+            }
+            results = new SearchResult[position.width()];
+            keys = new long[position.width()];
+        } else {
+            board.copyFrom(position);
+        }
+        for (SearchEngine engine : engines) {
+            engine.clearStop(); // cancel() stopped the one that was running
+        }
+        Arrays.fill(results, null);
+        baseMoves = position.moves();
+        cancelled = false;
+        running = null;
+        task = thread.submit(() -> ponder(searched));
+    }
+
+    // the pondering thread: every reply one move deeper at a time, until stopped or done
+    private void ponder(Predicate<Board> searched) {
+        // variables
+        boolean[] done = new boolean[board.width()];
+        int deepest = Math.min(maxDepth, board.size() - board.moves() - 1);
+
+        for (int col : columnOrder) {
+            if (board.canPlay(col) && !board.isWinningMove(col)) {
+                board.drop(col);
+                keys[col] = board.key();
+                done[col] = board.isFull() || !searched.test(board);
+                board.undo(col);
+            } else {
+                done[col] = true; // nothing to answer
+            }
+        }
+
+        for (int depth = 1; depth <= deepest; depth++) {
+            boolean searchedAny = false;
+            for (int col : columnOrder) {
+                if (done[col]) {
+                    continue;
+                }
+                SearchEngine engine = engines[col];
+                running = engine;
+                if (cancelled) {
+                    return; // stop() may have missed this engine, so look again before searching
+                }
+                board.drop(col);
+                SearchResult result = engine.search(board, depth, depth); // the shallower depths are in the table
+                board.undo(col);
+                nodes += result.nodes;
+                if (cancelled) {
+                    return; // an unfinished depth is thrown away
+                }
+                results[col] = result;
+                done[col] = result.score != 0 || depth >= board.size() - board.moves() - 1; // proven, or searched to the end
+                searchedAny = true;
+            }
+            if (!searchedAny) {
+                return;
+            }
+        }
+    }
+
+    /*---------------------------------------------------------------------------
+    | SearchResult take()                                                       |
+    |---------------------------------------------------------------------------|
+    | returns SearchResult: The bot's answer to the player's reply, if the      |
+    |                       pondering searched it as deep as the bot would;     |
+    |                       null if the bot has to search (or nothing was       |
+    |                       pondered).                                          |
+    |---------------------------------------------------------------------------|
+    | position: The position after the player's reply, with the bot to move.    |
+    |---------------------------------------------------------------------------|
+    | This program stops the pondering first.                                   |
+    ---------------------------------------------------------------------------*/
+    public SearchResult take(Board position) {
+        if (task == null) {
+            return null;
+        }
+        cancel();
+        if (position.moves() != baseMoves + 1 || position.width() != results.length) {
+            return null;
+        }
+        for (int col = 0; col < results.length; col++) {
+            SearchResult result = results[col];
+            if (result != null && keys[col] == position.key()) {
+                int remaining = position.size() - position.moves();
+                int needed = Math.min(timed ? Math.min(timedDepth, maxDepth) : maxDepth, remaining);
+                return result.score != 0 || result.depth >= needed ? result : null;
+            }
+        }
+        return null;
+    }
+
+    /*---------------------------------------------------------------------------
+    | void searched()                                                           |
+    |---------------------------------------------------------------------------|
+    | result: What the bot's own search found.                                  |
+    |---------------------------------------------------------------------------|
+    | With a time budget, this program remembers how deep the search got before |
+    | time ran out: a pondered reply is used once it is searched that deep. A   |
+    | search that proved a win or loss ended early, so it doesn't count.        |
+    ---------------------------------------------------------------------------*/
+    public void searched(SearchResult result) {
+        if (timed && result.score == 0) {
+            timedDepth = result.depth;
+        }
+    }
+
+    /*---------------------------------------------------------------------------
+    | void cancel()                                                             |
+    |---------------------------------------------------------------------------|
+    | This program stops the pondering and waits until its search has ended.    |
+    | It does nothing if nothing is pondered.                                   |
+    ---------------------------------------------------------------------------*/
+    public void cancel() {
+        if (task == null) {
+            return;
+        }
+        cancelled = true;
+        SearchEngine engine = running;
+        if (engine != null) {
+            engine.stop();
+        }
+        try {
+            task.get();
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException ee) {
+            throw new IllegalStateException("pondering failed", ee.getCause());
+        } finally {
+            task = null;
+        }
+    }
+
+    public long nodes() {
+        return nodes; // only up to date when nothing is pondered
+    }
+
+    @Override
+    public void close() {
+        cancel();
+        thread.shutdown();
+    }
+}
@@ -0,0 +1,46 @@
+package connectfour;
+
+/**
+ * The rules the console game and the server both play by: which chip each
+ * side plays and when a move ends the game.
+ *
+ * It keeps no state, so the server can use it without running ConnectFour's
+ * static setup (the console game's search engine, transposition table and
+ * renderer).
+ */
+public class Rules {
+
+    // constants
+    public static final char USER_CHIP = 'O';
+    public static final char BOT_CHIP = 'X';
+
+    /*---------------------------------------------------------------------------
+    | GameResult checkIfGameOver()                                              |
+    |---------------------------------------------------------------------------|
+    | returns GameResult: The game result (a win, a tie, or game not over)      |
+    |---------------------------------------------------------------------------|
+    | gameBoard: The game board.                                                |
+    | colNum: The column number (from 1) the chip was just put in.              |
+    | chip: Either the user chip or bot chip, which is either a 'O' or 'X'.     |
+    |---------------------------------------------------------------------------|
+    | This program checks if the last move ended the game. Only the lines       |
+    | through the new chip can have become a win, and the board counts the      |
+    | moves, so a tie is simply a full board.                                   |
+    ---------------------------------------------------------------------------*/
+    public static GameResult checkIfGameOver(Board gameBoard, int colNum, char chip) {
+        // variables
+        long start = Metrics.start();
+        GameResult gameResult;
+
+        // get game result
+        if (gameBoard.lastMoveWins(colNum - 1)) {
+            gameResult = chip == USER_CHIP ? GameResult.USER_WIN : GameResult.BOT_WIN;
+        } else if (gameBoard.isFull()) {
+            gameResult = GameResult.TIE;
+        } else {
+            gameResult = GameResult.NOT_OVER;
+        }
+        Metrics.stop(Metrics.checkIfGameOver, start);
+        return gameResult;
+    }
+}
@@ -0,0 +1,382 @@
+package connectfour;
+
+/**
+ * Negamax search with alpha-beta pruning for the Connect Four bot.
+ *
+ * The engine plays moves straight on the Board it is given and takes them
+ * back again, so searching a node never allocates. It plays every board size
+ * and connect-N variant. Columns are tried from the center outwards because
+ * center moves are usually best, which lets alpha-beta cut off more. Iterative
+ * deepening searches depth 1, 2, 3, ... until the maximum depth is reached,
+ * the position is solved or the time budget runs out.
+ *
+ * An optional transposition table remembers positions that were already
+ * searched. Its best move is tried first, and its bounds can end a node
+ * without searching it again. A position and its mirror image share one
+ * entry (Board.canonicalKey), with the best move flipped when needed, so the
+ * table holds up to twice as many positions. The table may be shared by
+ * several engines searching at the same time (see ParallelSearch), and
+ * another thread can end a search early with stop().
+ */
+public class SearchEngine {
+
+    // constants
+    private static final int TIME_CHECK_MASK = 4095; // look at the clock every 4096 nodes
+    public static final int DEFAULT_DEPTH = 12;
+    public static final int NO_DEPTH_LIMIT = Integer.MAX_VALUE; // with a time budget: deepen until time runs out
+
+    // variables
+    private final int maxDepth;
+    private final long timeBudgetNanos; // 0 means no time limit
+    private final TranspositionTable table; // null means no table
+    private Board board;
+    private int width; // of the board being searched
+    private int size;
+    private int[] columnOrder = columnOrder(BitBoard.WIDTH);
+    private long nodes;
+    private long deadline;
+    private boolean stopped;
+    private volatile boolean stopRequested;
+    private boolean symmetric = true; // mirror images share a table entry
+    private int rootRotation; // how far along the column order the root's columns start, for helper threads
+
+    /*---------------------------------------------------------------------------
+    | SearchEngine()                                                            |
+    |---------------------------------------------------------------------------|
+    | maxDepth: The deepest the search goes, in moves.                          |
+    | timeBudgetMillis: How long one search may take. 0 means no limit.         |
+    | table: The transposition table to use, or null to search without one.     |
+    ---------------------------------------------------------------------------*/
+    public SearchEngine(int maxDepth, long timeBudgetMillis, TranspositionTable table) {
+        if (maxDepth < 1) {
+            throw new IllegalArgumentException("maxDepth must be at least 1: " + maxDepth);
+        }
+        this.maxDepth = maxDepth;
+        this.timeBudgetNanos = timeBudgetMillis * 1_000_000L;
+        this.table = table;
+    }
+
+    public SearchEngine(int maxDepth, long timeBudgetMillis) {
+        this(maxDepth, timeBudgetMillis, null);
+    }
+
+    /*---------------------------------------------------------------------------
+    | int depthFromProperties()                                                 |
+    |---------------------------------------------------------------------------|
+    | returns int: The bot's maximum depth, connectfour.depth. Without that     |
+    |              property it is DEFAULT_DEPTH, or no limit at all when the    |
+    |              bot has a time budget, so the clock alone ends the search.   |
+    |---------------------------------------------------------------------------|
+    | timeBudgetMillis: The bot's time budget per move, 0 for none.             |
+    ---------------------------------------------------------------------------*/
+    public static int depthFromProperties(long timeBudgetMillis) {
+        return Integer.getInteger("connectfour.depth", timeBudgetMillis > 0 ? NO_DEPTH_LIMIT : DEFAULT_DEPTH);
+    }
+
+    /*---------------------------------------------------------------------------
+    | SearchResult search()                                                     |
+    |---------------------------------------------------------------------------|
+    | returns SearchResult: The best column for the player to move.             |
+    |---------------------------------------------------------------------------|
+    | position: The position to search. It must not be full or already won.     |
+    |           Moves are played on it and taken back, so it is the same        |
+    |           when the search returns.                                        |
+    ---------------------------------------------------------------------------*/
+    public SearchResult search(Board position) {
+        stopRequested = false;
+        if (table != null) {
+            table.newSearch();
+        }
+        return search(position, 1);
+    }
+
+    /*---------------------------------------------------------------------------
+    | SearchResult search()                                                     |
+    |---------------------------------------------------------------------------|
+    | returns SearchResult: The best column for the player to move.             |
+    |---------------------------------------------------------------------------|
+    | position: The position to search.                                         |
+    | firstDepth: The depth iterative deepening starts at.                      |
+    |---------------------------------------------------------------------------|
+    | This is the search without starting a new table generation or clearing    |
+    | a stop request, for helper threads that join a search already running.    |
+    ---------------------------------------------------------------------------*/
+    SearchResult search(Board position, int firstDepth) {
+        return search(position, firstDepth, maxDepth);
+    }
+
+    /*---------------------------------------------------------------------------
+    | SearchResult search()                                                     |
+    |---------------------------------------------------------------------------|
+    | returns SearchResult: The best column for the player to move.             |
+    |---------------------------------------------------------------------------|
+    | position: The position to search.                                         |
+    | firstDepth, lastDepth: The depths iterative deepening starts and ends at  |
+    |                        (never deeper than maxDepth).                      |
+    |---------------------------------------------------------------------------|
+    | Like search(position, firstDepth), for Ponderer, which deepens the search |
+    | of every reply one depth at a time with the same engine.                  |
+    ---------------------------------------------------------------------------*/
+    SearchResult search(Board position, int firstDepth, int lastDepth) {
+        // variables
+        long start = System.nanoTime();
+        int bestMove = -1;
+        int bestScore = 0;
+        int finishedDepth = 0;
+        int remaining = position.size() - position.moves();
+        int deepest = Math.min(Math.min(maxDepth, lastDepth), remaining);
+
+        begin(position, start);
+
+        // take a win right away
+        for (int i = 0; i < width; i++) {
+            int col = columnOrder[i];
+            if (board.canPlay(col) && board.isWinningMove(col)) {
+                return new SearchResult(col, (size + 1 - board.moves()) / 2, 1, 1, System.nanoTime() - start);
+            }
+        }
+
+        // search one move deeper each time until out of depth or time
+        for (int depth = Math.min(firstDepth, remaining); depth <= deepest; depth++) {
+            int move = -1;
+            int alpha = -size;
+            int best = -size;
+
+            // the best column of the last iteration goes first
+            for (int i = -1; i < width; i++) {
+                int col = i < 0 ? bestMove : columnOrder[(i + rootRotation) % width];
+                if (col < 0 || (i >= 0 && col == bestMove) || !board.canPlay(col)) {
+                    continue;
+                }
+                board.drop(col);
+                int score = -negamax(depth - 1, -size, -alpha);
+                board.undo(col);
+                if (stopped) {
+                    break;
+                }
+                if (move == -1 || score > best) {
+                    best = score;
+                    move = col;
+                }
+                alpha = Math.max(alpha, score);
+            }
+
+            // an unfinished iteration is thrown away, unless nothing finished yet
+            if (stopped) {
+                if (bestMove == -1) {
+                    bestMove = move;
+                    bestScore = best;
+                }
+                break;
+            }
+            bestMove = move;
+            bestScore = best;
+            finishedDepth = depth;
+
+            // a win or loss was proven, searching deeper will not change it
+            if (best != 0) {
+                break;
+            }
+        }
+
+        // out of time before a single column was searched: any legal column will do
+        for (int i = 0; bestMove == -1; i++) {
+            if (board.canPlay(columnOrder[i])) {
+                bestMove = columnOrder[i];
+            }
+        }
+        return new SearchResult(bestMove, bestScore, finishedDepth, nodes, System.nanoTime() - start);
+    }
+
+    /*---------------------------------------------------------------------------
+    | int solveWindow()                                                         |
+    |---------------------------------------------------------------------------|
+    | returns int: The exact score of the position if it is between alpha and   |
+    |              beta. Otherwise a score at or below alpha (the real score is |
+    |              no higher) or at or above beta (the real score is no lower). |
+    |---------------------------------------------------------------------------|
+    | position: The position. It must not be won already.                       |
+    | alpha, beta: The window.                                                  |
+    |---------------------------------------------------------------------------|
+    | This program searches all the way to the end of the game, for Solver.     |
+    | With nothing cut off by depth, a score of 0 is a real draw.               |
+    ---------------------------------------------------------------------------*/
+    int solveWindow(Board position, int alpha, int beta) {
+        begin(position, System.nanoTime());
+        return negamax(position.size() - position.moves(), alpha, beta);
+    }
+
+    // gets the engine ready to search the position
+    private void begin(Board position, long start) {
+        board = position;
+        width = position.width();
+        size = position.size();
+        if (columnOrder.length != width) {
+            columnOrder = columnOrder(width);
+        }
+        nodes = 0;
+        stopped = false;
+        deadline = start + timeBudgetNanos;
+    }
+
+    /*---------------------------------------------------------------------------
+    | int[] columnOrder()                                                       |
+    |---------------------------------------------------------------------------|
+    | returns int[]: The columns from the center outwards, like 3, 2, 4, 1, 5,  |
+    |                0, 6 on a board 7 columns wide.                            |
+    |---------------------------------------------------------------------------|
+    | width: How many columns the board has.                                    |
+    ---------------------------------------------------------------------------*/
+    static int[] columnOrder(int width) {
+        int[] order = new int[width];
+        for (int i = 0; i < width; i++) {
+            order[i] = width / 2 + (1 - 2 * (i % 2)) * (i + 1) / 2;
+        }
+        return order;
+    }
+
+    /*---------------------------------------------------------------------------
+    | int negamax()                                                             |
+    |---------------------------------------------------------------------------|
+    | returns int: The score of the position for the player to move.            |
+    |---------------------------------------------------------------------------|
+    | depth: How many more moves to look ahead.                                 |
+    | alpha: The score the player to move is already sure to get.               |
+    | beta: The score the opponent is already sure to hold the player to.       |
+    ---------------------------------------------------------------------------*/
+    private int negamax(int depth, int alpha, int beta) {
+        nodes++;
+        if ((nodes & TIME_CHECK_MASK) == 0
+                && (stopRequested || (timeBudgetNanos > 0 && System.nanoTime() > deadline))) {
+            stopped = true;
+        }
+        if (stopped || board.isFull()) {
+            return 0;
+        }
+
+        // the player to move wins right away if they can
+        for (int col = 0; col < width; col++) {
+            if (board.canPlay(col) && board.isWinningMove(col)) {
+                return (size + 1 - board.moves()) / 2;
+            }
+        }
+        if (depth == 0) {
+            return 0;
+        }
+
+        // the best possible score is winning with the player's next-next move
+        int max = (size - 1 - board.moves()) / 2;
+        if (beta > max) {
+            beta = max;
+            if (alpha >= beta) {
+                return beta;
+            }
+        }
+
+        // use what an earlier search found out about this position
+        int alphaOrig = alpha;
+        int ttMove = -1;
+        long key = 0;
+        int flip = -1; // the table keeps the mirror image: its columns are flip - col
+        if (table != null) {
+            key = board.key();
+            if (symmetric) {
+                long mirrorKey = board.mirrorKey();
+                if (mirrorKey < key) {
+                    key = mirrorKey;
+                    flip = width - 1;
+                }
+            }
+            long entry = table.probe(key);
+            if (entry != 0) {
+                ttMove = TranspositionTable.move(entry);
+                if (flip >= 0 && ttMove >= 0) {
+                    ttMove = flip - ttMove;
+                }
+                if (TranspositionTable.depth(entry) >= depth) {
+                    int score = TranspositionTable.score(entry);
+                    int bound = TranspositionTable.bound(entry);
+                    if (bound == TranspositionTable.EXACT) {
+                        return score;
+                    } else if (bound == TranspositionTable.LOWER) {
+                        alpha = Math.max(alpha, score);
+                    } else {
+                        beta = Math.min(beta, score);
+                    }
+                    if (alpha >= beta) {
+                        return score;
+                    }
+                }
+            }
+        }
+
+        // the table's best move goes first, then center first
+        int bestCol = -1;
+        for (int i = -1; i < width; i++) {
+            int col = i < 0 ? ttMove : columnOrder[i];
+            if (col < 0 || (i >= 0 && col == ttMove) || !board.canPlay(col)) {
+                continue;
+            }
+            board.drop(col);
+            int score = -negamax(depth - 1, -beta, -alpha);
+            board.undo(col);
+            if (score >= beta) {
+                store(key, score, depth, TranspositionTable.LOWER, flip < 0 ? col : flip - col);
+                return score;
+            }
+            if (score > alpha || bestCol == -1) {
+                bestCol = col;
+                alpha = Math.max(alpha, score);
+            }
+        }
+        store(key, alpha, depth, alpha > alphaOrig ? TranspositionTable.EXACT : TranspositionTable.UPPER,
+                flip < 0 || bestCol < 0 ? bestCol : flip - bestCol);
+        return alpha;
+    }
+
+    /*---------------------------------------------------------------------------
+    | void store()                                                              |
+    |---------------------------------------------------------------------------|
+    | This program saves a node's result in the table, unless there is no       |
+    | table or the search was stopped (then the result is not trustworthy).     |
+    ---------------------------------------------------------------------------*/
+    private void store(long key, int score, int depth, int bound, int move) {
+        if (table != null && !stopped) {
+            table.store(key, score, depth, bound, move);
+        }
+    }
+
+    /*---------------------------------------------------------------------------
+    | void stop()                                                               |
+    |---------------------------------------------------------------------------|
+    | This program asks a running search (on another thread) to stop soon. It   |
+    | returns the best column of the last finished iteration.                   |
+    ---------------------------------------------------------------------------*/
+    public void stop() {
+        stopRequested = true;
+    }
+
+    void clearStop() {
+        stopRequested = false;
+    }
+
+    long nodes() {
+        return nodes; // of the last search
+    }
+
+    void rotateRootOrder(int rotation) {
+        this.rootRotation = rotation; // ParallelSearch's helpers each try the root columns in another order
+    }
+
+    void useSymmetry(boolean symmetric) {
+        this.symmetric = symmetric; // off only to measure what it saves
+    }
+
+    public int maxDepth() {
+        return maxDepth;
+    }
+
+    public TranspositionTable table() {
+        return table;
+    }
+}
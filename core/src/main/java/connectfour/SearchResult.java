@@ -0,0 +1,44 @@
+package connectfour;
+
+/**
+ * What the search engine found for one position.
+ *
+ * Scores are from the point of view of the player to move. A positive score
+ * means a forced win, bigger when it comes sooner; a negative score means a
+ * forced loss; 0 is a draw or a position the search could not decide.
+ */
+public class SearchResult {
+
+    // variables
+    public final int bestMove; // column from 0 to width - 1
+    public final int score;
+    public final int depth; // deepest iteration that finished
+    public final long nodes;
+    public final long nanos;
+
+    public SearchResult(int bestMove, int score, int depth, long nodes, long nanos) {
+        this.bestMove = bestMove;
+        this.score = score;
+        this.depth = depth;
+        this.nodes = nodes;
+        this.nanos = nanos;
+    }
+
+    /*---------------------------------------------------------------------------
+    | long nodesPerSecond()                                                     |
+    |---------------------------------------------------------------------------|
+    | returns long: How many positions the search looked at per second.         |
+    ---------------------------------------------------------------------------*/
+    public long nodesPerSecond() {
+        if (nanos <= 0) {
+            return 0;
+        }
+        return nodes * 1_000_000_000L / nanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("column %d, score %d, depth %d, %d nodes in %.1f ms (%d nodes/s)",
+                bestMove + 1, score, depth, nodes, nanos / 1e6, nodesPerSecond());
+    }
+}
@@ -0,0 +1,125 @@
+package connectfour;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Headless batch mode: two strategies play each other over and over.
+ *
+ * The games are split over worker threads. Every worker makes its own pair of
+ * strategies (seeded from the batch seed and the worker number, so a run can
+ * be repeated) and its own board, and the two strategies take turns going
+ * first. The board is the variant set by connectfour.cols, connectfour.rows
+ * and connectfour.connect. Nothing is printed until the batch is done, and
+ * no player files are touched.
+ *
+ * Usage: java connectfour.SelfPlay [games] [strategyA] [strategyB] [threads] [seed]
+ *        (see Strategies for the strategy specs)
+ */
+public class SelfPlay {
+
+    // indexes into a worker's tally
+    static final int A_WINS = 0;
+    static final int B_WINS = 1;
+    static final int TIES = 2;
+    static final int MOVES = 3;
+    static final int FIRST_PLAYER_WINS = 4;
+
+    public static void main(String[] args) throws InterruptedException {
+        // variables and constants
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+        String specA = args.length > 1 ? args[1] : "search:6";
+        String specB = args.length > 2 ? args[2] : "random";
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+        long seed = args.length > 4 ? Long.parseLong(args[4]) : 1;
+        long start = System.nanoTime();
+        long[] total = new long[5];
+        double seconds;
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<long[]>> workers = new ArrayList<>();
+        for (int w = 0; w < threads; w++) {
+            int first = (int) ((long) games * w / threads);
+            int last = (int) ((long) games * (w + 1) / threads);
+            long workerSeed = seed * 1_000_003L + w;
+            workers.add(pool.submit(() -> playGames(Strategies.create(specA, workerSeed),
+                    Strategies.create(specB, ~workerSeed), first, last)));
+        }
+        try {
+            for (Future<long[]> worker : workers) {
+                long[] tally = worker.get();
+                for (int i = 0; i < total.length; i++) {
+                    total[i] += tally[i];
+                }
+            }
+        } catch (ExecutionException ee) {
+            throw new IllegalStateException("self-play worker failed", ee.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+        seconds = (System.nanoTime() - start) / 1e9;
+
+        // output the batch summary
+        System.out.printf("%d games of %s vs %s on %d threads in %.2f s (%.0f games/s)%n",
+                games, specA, specB, threads, seconds, games / seconds);
+        System.out.printf("%s wins: %d (%.1f%%)%n", specA, total[A_WINS], 100.0 * total[A_WINS] / games);
+        System.out.printf("%s wins: %d (%.1f%%)%n", specB, total[B_WINS], 100.0 * total[B_WINS] / games);
+        System.out.printf("Ties: %d (%.1f%%)%n", total[TIES], 100.0 * total[TIES] / games);
+        System.out.printf("First player wins: %.1f%%%n", 100.0 * total[FIRST_PLAYER_WINS] / games);
+        System.out.printf("Average game length: %.1f moves%n", (double) total[MOVES] / games);
+    }
+
+    /*---------------------------------------------------------------------------
+    | long[] playGames()                                                        |
+    |---------------------------------------------------------------------------|
+    | returns long[]: The tally: A wins, B wins, ties, total moves and first    |
+    |                 player wins.                                              |
+    |---------------------------------------------------------------------------|
+    | a, b: The two strategies.                                                 |
+    | first, last: The game numbers to play (last not included). A goes first   |
+    |              in the even games.                                           |
+    ---------------------------------------------------------------------------*/
+    static long[] playGames(Strategy a, Strategy b, int first, int last) {
+        // variables
+        long[] tally = new long[5];
+        Board board = Board.fromProperties();
+
+        for (int game = first; game < last; game++) {
+            boolean aFirst = (game & 1) == 0;
+            int winner = playGame(aFirst ? a : b, aFirst ? b : a, board);
+            tally[MOVES] += board.moves();
+            if (winner < 0) {
+                tally[TIES]++;
+            } else {
+                tally[(winner == 0) == aFirst ? A_WINS : B_WINS]++;
+                if (winner == 0) {
+                    tally[FIRST_PLAYER_WINS]++;
+                }
+            }
+        }
+        return tally;
+    }
+
+    /*---------------------------------------------------------------------------
+    | int playGame()                                                            |
+    |---------------------------------------------------------------------------|
+    | returns int: 0 if the first player won, 1 if the second player won, -1 if |
+    |              the game tied.                                               |
+    |---------------------------------------------------------------------------|
+    | first, second: The strategies, in the order they move.                    |
+    | board: The board to play on. It is reset first and holds the final        |
+    |        position afterwards.                                               |
+    ---------------------------------------------------------------------------*/
+    static int playGame(Strategy first, Strategy second, Board board) {
+        board.reset();
+        while (!board.isFull()) {
+            int player = board.playerToMove();
+            int col = (player == 0 ? first : second).chooseMove(board);
+            board.drop(col);
+            if (board.lastMoveWins(col)) {
+                return player;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,83 @@
+package connectfour;
+
+/**
+ * The exact result of a position with perfect play from both sides.
+ *
+ * The score uses the same scale as SearchResult, from the point of view of
+ * the player to move: positive is a win, bigger when it comes sooner;
+ * negative is a loss; 0 is a draw. Unlike a search score, 0 is always a real
+ * draw here.
+ */
+public class Solution {
+
+    // variables
+    public final int bestMove; // column, from 0
+    public final int score;
+    public final int movesToEnd; // discs dropped by both players until the game ends, the last one included
+    public final long nodes;
+    public final long nanos;
+
+    public Solution(int bestMove, int score, int movesToEnd, long nodes, long nanos) {
+        this.bestMove = bestMove;
+        this.score = score;
+        this.movesToEnd = movesToEnd;
+        this.nodes = nodes;
+        this.nanos = nanos;
+    }
+
+    /*---------------------------------------------------------------------------
+    | int movesToEnd()                                                          |
+    |---------------------------------------------------------------------------|
+    | returns int: How many discs both players drop until the game ends.        |
+    |---------------------------------------------------------------------------|
+    | score: The exact score of the position.                                   |
+    | moves: How many discs are on the board.                                   |
+    | size: How many cells the board has.                                       |
+    |---------------------------------------------------------------------------|
+    | A win is scored (size + 1 - discs) / 2 by the player about to drop the    |
+    | winning disc, so the number of discs on the board at that moment is       |
+    | size + 1 - 2 * score or one less, whichever is the winner's turn.         |
+    ---------------------------------------------------------------------------*/
+    static int movesToEnd(int score, int moves, int size) {
+        // variables
+        int winnerTurn;
+        int discsBeforeWin;
+
+        if (score == 0) {
+            return size - moves; // a draw fills the board
+        }
+        winnerTurn = score > 0 ? moves & 1 : (moves + 1) & 1;
+        discsBeforeWin = size + 1 - 2 * Math.abs(score);
+        if ((discsBeforeWin & 1) != winnerTurn) {
+            discsBeforeWin--;
+        }
+        return discsBeforeWin - moves + 1;
+    }
+
+    public boolean isWin() {
+        return score > 0;
+    }
+
+    public boolean isLoss() {
+        return score < 0;
+    }
+
+    public boolean isDraw() {
+        return score == 0;
+    }
+
+    /*---------------------------------------------------------------------------
+    | String outcome()                                                          |
+    |---------------------------------------------------------------------------|
+    | returns String: "win", "loss" or "draw" for the player to move.           |
+    ---------------------------------------------------------------------------*/
+    public String outcome() {
+        return isWin() ? "win" : isLoss() ? "loss" : "draw";
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s in %d moves, column %d, score %d, %d nodes in %.1f ms",
+                outcome(), movesToEnd, bestMove + 1, score, nodes, nanos / 1e6);
+    }
+}
@@ -0,0 +1,185 @@
+package connectfour;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * Solves positions exactly: win, loss or draw with perfect play, and how many
+ * moves until it happens.
+ *
+ * The search always goes to the end of the game, so there is no depth limit
+ * and no guessing. Instead of one search with a wide window, it asks a series
+ * of yes/no questions ("is the score above s?") with null-window searches,
+ * each of which cuts off far more than a wide search. Every answer narrows the
+ * range the score can be in, and the guesses lean towards 0 first, where most
+ * positions end up, then towards quick wins and losses.
+ *
+ * The transposition table keeps what every search found, so the questions
+ * after the first are mostly answered from the table, and so are the
+ * positions after the first in a batch. A Solver is used by one thread at a
+ * time.
+ *
+ * Usage: java connectfour.Solver [positions file]
+ *        (one move string per line, like "4453"; standard input without a file)
+ *
+ * Every position is printed back with its solution:
+ *   <moves> <win|loss|draw> <moves to the end> <best column> <score>
+ */
+public class Solver {
+
+    // constants
+    static final long DEFAULT_TABLE_BYTES = 64L << 20;
+    public static final int DEFAULT_EMPTY_CELLS = 20; // the bot solves from here on (connectfour.solveEmpty)
+
+    // variables
+    private final SearchEngine engine;
+    private final TranspositionTable table;
+
+    /*---------------------------------------------------------------------------
+    | Solver()                                                                  |
+    |---------------------------------------------------------------------------|
+    | table: The transposition table. It can be shared with the bot's search;   |
+    |        an entry is only trusted when it was searched to the end.          |
+    ---------------------------------------------------------------------------*/
+    public Solver(TranspositionTable table) {
+        this.table = table;
+        this.engine = new SearchEngine(1, 0, table);
+    }
+
+    public Solver() {
+        this(new TranspositionTable(DEFAULT_TABLE_BYTES));
+    }
+
+    public static void main(String[] args) throws IOException {
+        // variables and constants
+        Solver solver = new Solver();
+        BufferedReader in = args.length > 0 ? Files.newBufferedReader(Paths.get(args[0]))
+                : new BufferedReader(new InputStreamReader(System.in));
+        String line;
+
+        try (in) {
+            while ((line = in.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                try {
+                    Solution solution = solver.solve(line);
+                    System.out.println(line + " " + solution.outcome() + " " + solution.movesToEnd + " "
+                            + (solution.bestMove + 1) + " " + solution.score);
+                } catch (IllegalArgumentException e) {
+                    System.out.println(line + " error " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /*---------------------------------------------------------------------------
+    | Solution solve()                                                          |
+    |---------------------------------------------------------------------------|
+    | returns Solution: The exact result and the best column for the player to  |
+    |                   move.                                                   |
+    |---------------------------------------------------------------------------|
+    | position: The position. It is the same when the method returns. It must   |
+    |           not be full or already won.                                     |
+    ---------------------------------------------------------------------------*/
+    public Solution solve(Board position) {
+        // variables
+        long start = System.nanoTime();
+        long nodes = 0;
+        int moves = position.moves();
+        int size = position.size();
+        int[] order = SearchEngine.columnOrder(position.width());
+        int min = -(size - moves) / 2;
+        int max = (size + 1 - moves) / 2;
+        int bestMove = -1;
+
+        if (position.isFull()) {
+            throw new IllegalArgumentException("the board is full");
+        }
+        if (table != null) {
+            table.newSearch();
+        }
+
+        // a win right away needs no search
+        for (int col : order) {
+            if (position.canPlay(col) && position.isWinningMove(col)) {
+                return new Solution(col, max, 1, 1, System.nanoTime() - start);
+            }
+        }
+
+        // narrow the score down with null-window searches
+        while (min < max) {
+            int guess = min + (max - min) / 2;
+            if (guess <= 0 && min / 2 < guess) {
+                guess = min / 2;
+            } else if (guess >= 0 && max / 2 > guess) {
+                guess = max / 2;
+            }
+            int score = engine.solveWindow(position, guess, guess + 1);
+            nodes += engine.nodes();
+            if (score <= guess) {
+                max = score;
+            } else {
+                min = score;
+            }
+        }
+
+        // the best column is the first one whose reply holds the opponent to -score
+        for (int col : order) {
+            if (!position.canPlay(col)) {
+                continue;
+            }
+            position.drop(col);
+            int reply = engine.solveWindow(position, -min, -min + 1);
+            nodes += engine.nodes();
+            position.undo(col);
+            if (reply <= -min) {
+                bestMove = col;
+                break;
+            }
+        }
+        return new Solution(bestMove, min, Solution.movesToEnd(min, moves, size), nodes, System.nanoTime() - start);
+    }
+
+    /*---------------------------------------------------------------------------
+    | Solution solve()                                                          |
+    |---------------------------------------------------------------------------|
+    | returns Solution: The solution of the position after the moves.           |
+    |---------------------------------------------------------------------------|
+    | moves: A move string like "4453", played on an empty board of the         |
+    |        connectfour.cols/rows/connect variant.                             |
+    ---------------------------------------------------------------------------*/
+    public Solution solve(String moves) {
+        Board board = Board.fromProperties();
+        board.playMoves(moves);
+
+        // playMoves allows a winning last move, but a won game has nothing left to solve
+        if (moves.length() > 0 && board.lastMoveWins(moves.charAt(moves.length() - 1) - '1')) {
+            throw new IllegalArgumentException("the game is already won: " + moves);
+        }
+        return solve(board);
+    }
+
+    /*---------------------------------------------------------------------------
+    | List<Solution> solveAll()                                                 |
+    |---------------------------------------------------------------------------|
+    | returns List<Solution>: The solutions, in the same order as the           |
+    |                         positions.                                        |
+    |---------------------------------------------------------------------------|
+    | positions: The positions to solve, one after the other with the same      |
+    |            table.                                                         |
+    ---------------------------------------------------------------------------*/
+    public List<Solution> solveAll(List<? extends Board> positions) {
+        List<Solution> solutions = new ArrayList<>(positions.size());
+        for (Board position : positions) {
+            solutions.add(solve(position));
+        }
+        return solutions;
+    }
+
+    public TranspositionTable table() {
+        return table;
+    }
+}
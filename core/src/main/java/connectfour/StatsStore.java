@@ -0,0 +1,341 @@
+package connectfour;
+
+import java.io.*;
+import java.lang.invoke.*;
+import java.nio.*;
+import java.nio.channels.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.locks.*;
+
+/**
+ * All players' win/loss/tie stats in one memory-mapped file.
+ *
+ * The file has a fixed number of player records and a name index:
+ *
+ *   header   64 bytes: int magic ("C4ST"), int version, int capacity,
+ *            int number of records
+ *   index    capacity * 2 int slots, open addressing on the name hash; a slot
+ *            holds record number + 1, or 0 if it is empty
+ *   records  capacity * 48 bytes: byte name length, 31 bytes of UTF-8 name,
+ *            int wins, int losses, int ties, 4 bytes unused
+ *
+ * The counters are updated with atomic adds straight on the mapped memory, so
+ * two sessions of the same player (threads or separate processes mapping the
+ * same file) never lose an update. Adding a player takes a file lock, so only
+ * one process at a time hands out new records. A file lock is held by the
+ * whole process, so threads of this process take turns with a ReentrantLock
+ * first (not synchronized, which would pin a virtual thread's carrier while
+ * it waits for the file).
+ */
+public class StatsStore implements Closeable {
+
+    // constants
+    static final int MAGIC = 0x43345354; // "C4ST"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 64;
+    static final int RECORD_BYTES = 48;
+    static final int MAX_NAME_BYTES = 31;
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+    private static final int COUNT_OFFSET = 12;
+    private static final int WINS = 32; // offsets inside a record
+    private static final int LOSSES = 36;
+    private static final int TIES = 40;
+    private static final VarHandle INT = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+
+    // variables
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+    private final int indexMask;
+    private final int recordsStart;
+    private final ReentrantLock adding = new ReentrantLock(); // one thread of this process adds players at a time
+
+    private StatsStore(FileChannel channel, MappedByteBuffer buffer, int capacity) {
+        this.channel = channel;
+        this.buffer = buffer;
+        this.capacity = capacity;
+        this.indexMask = capacity * 2 - 1;
+        this.recordsStart = HEADER_BYTES + capacity * 2 * Integer.BYTES;
+    }
+
+    /*---------------------------------------------------------------------------
+    | StatsStore open()                                                         |
+    |---------------------------------------------------------------------------|
+    | returns StatsStore: The store, mapped into memory.                        |
+    |---------------------------------------------------------------------------|
+    | path: The store file. It is created if it doesn't exist.                  |
+    | capacity: How many players a new file has room for (rounded up to a       |
+    |           power of two). An existing file keeps its own capacity.         |
+    ---------------------------------------------------------------------------*/
+    public static StatsStore open(Path path, int capacity) throws IOException {
+        // variables
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        MappedByteBuffer buffer;
+        int fileCapacity;
+
+        try {
+            // only one process may write the header of a new file
+            FileLock lock = channel.lock(0, HEADER_BYTES, false);
+            try {
+                if (channel.size() == 0) {
+                    fileCapacity = Integer.highestOneBit(Math.max(capacity - 1, 1)) << 1;
+                    buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, fileSize(fileCapacity));
+                    buffer.order(ByteOrder.LITTLE_ENDIAN);
+                    buffer.putInt(4, VERSION);
+                    buffer.putInt(8, fileCapacity);
+                    buffer.putInt(COUNT_OFFSET, 0);
+                    buffer.putInt(0, MAGIC);
+                    buffer.force();
+                } else {
+                    buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+                    buffer.order(ByteOrder.LITTLE_ENDIAN);
+                    if (channel.size() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+                        throw new IOException(path + " is not a stats store");
+                    }
+                    if (buffer.getInt(4) != VERSION) {
+                        throw new IOException(path + " has stats version " + buffer.getInt(4) + ", expected " + VERSION);
+                    }
+                    fileCapacity = buffer.getInt(8);
+                    if (channel.size() != fileSize(fileCapacity)) {
+                        throw new IOException(path + " is cut off or too long for " + fileCapacity + " players");
+                    }
+                }
+            } finally {
+                lock.release();
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        return new StatsStore(channel, buffer, fileCapacity);
+    }
+
+    private static long fileSize(int capacity) {
+        return HEADER_BYTES + (long) capacity * 2 * Integer.BYTES + (long) capacity * RECORD_BYTES;
+    }
+
+    /*---------------------------------------------------------------------------
+    | int find()                                                                |
+    |---------------------------------------------------------------------------|
+    | returns int: The player's record number, or -1 if they have no record.    |
+    |---------------------------------------------------------------------------|
+    | name: The player's name.                                                  |
+    ---------------------------------------------------------------------------*/
+    public int find(String name) {
+        byte[] nameBytes = encode(name);
+        for (int slot = hash(nameBytes) & indexMask; ; slot = (slot + 1) & indexMask) {
+            int entry = (int) INT.getAcquire(buffer, HEADER_BYTES + slot * Integer.BYTES);
+            if (entry == 0) {
+                return -1;
+            }
+            if (nameEquals(entry - 1, nameBytes)) {
+                return entry - 1;
+            }
+        }
+    }
+
+    /*---------------------------------------------------------------------------
+    | int findOrCreate()                                                        |
+    |---------------------------------------------------------------------------|
+    | returns int: The player's record number. A new record with 0 wins,        |
+    |              losses and ties is added if they have none.                  |
+    |---------------------------------------------------------------------------|
+    | name: The player's name, at most 31 bytes of UTF-8.                       |
+    |---------------------------------------------------------------------------|
+    | This program throws an IllegalStateException if the store is full.        |
+    ---------------------------------------------------------------------------*/
+    public int findOrCreate(String name) throws IOException {
+        // variables
+        byte[] nameBytes = encode(name);
+        int record = find(name);
+
+        if (record >= 0) {
+            return record;
+        }
+
+        // another thread or process may be adding players too, so look again under the locks
+        adding.lock();
+        FileLock lock = null;
+        try {
+            lock = channel.lock(0, HEADER_BYTES, false);
+            record = find(name);
+            if (record >= 0) {
+                return record;
+            }
+            record = buffer.getInt(COUNT_OFFSET);
+            if (record == capacity) {
+                throw new IllegalStateException("the stats store is full (" + capacity + " players)");
+            }
+
+            // fill in the record before the index points at it
+            int offset = recordsStart + record * RECORD_BYTES;
+            buffer.put(offset, (byte) nameBytes.length);
+            buffer.put(offset + 1, nameBytes);
+            buffer.putInt(offset + WINS, 0);
+            buffer.putInt(offset + LOSSES, 0);
+            buffer.putInt(offset + TIES, 0);
+
+            int slot = hash(nameBytes) & indexMask;
+            while (buffer.getInt(HEADER_BYTES + slot * Integer.BYTES) != 0) {
+                slot = (slot + 1) & indexMask;
+            }
+            INT.setRelease(buffer, HEADER_BYTES + slot * Integer.BYTES, record + 1);
+            INT.setRelease(buffer, COUNT_OFFSET, record + 1);
+        } finally {
+            if (lock != null) {
+                lock.release();
+            }
+            adding.unlock();
+        }
+        return record;
+    }
+
+    /*---------------------------------------------------------------------------
+    | void recordResult()                                                       |
+    |---------------------------------------------------------------------------|
+    | record: The player's record number.                                       |
+    | gameResult: The result of the player's game. NOT_OVER changes nothing.    |
+    |---------------------------------------------------------------------------|
+    | This program adds one to the player's wins, losses or ties atomically.    |
+    ---------------------------------------------------------------------------*/
+    public void recordResult(int record, GameResult gameResult) {
+        int offset = recordsStart + record * RECORD_BYTES;
+        if (gameResult == GameResult.USER_WIN) {
+            INT.getAndAdd(buffer, offset + WINS, 1);
+        } else if (gameResult == GameResult.BOT_WIN) {
+            INT.getAndAdd(buffer, offset + LOSSES, 1);
+        } else if (gameResult == GameResult.TIE) {
+            INT.getAndAdd(buffer, offset + TIES, 1);
+        }
+    }
+
+    /*---------------------------------------------------------------------------
+    | void setStats()                                                           |
+    |---------------------------------------------------------------------------|
+    | record: The player's record number.                                       |
+    | wins, losses, ties: The new totals.                                       |
+    ---------------------------------------------------------------------------*/
+    public void setStats(int record, int wins, int losses, int ties) {
+        int offset = recordsStart + record * RECORD_BYTES;
+        INT.setVolatile(buffer, offset + WINS, wins);
+        INT.setVolatile(buffer, offset + LOSSES, losses);
+        INT.setVolatile(buffer, offset + TIES, ties);
+    }
+
+    public String name(int record) {
+        int offset = recordsStart + record * RECORD_BYTES;
+        byte[] nameBytes = new byte[buffer.get(offset)];
+        buffer.get(offset + 1, nameBytes);
+        return new String(nameBytes, StandardCharsets.UTF_8);
+    }
+
+    public int wins(int record) {
+        return (int) INT.getVolatile(buffer, recordsStart + record * RECORD_BYTES + WINS);
+    }
+
+    public int losses(int record) {
+        return (int) INT.getVolatile(buffer, recordsStart + record * RECORD_BYTES + LOSSES);
+    }
+
+    public int ties(int record) {
+        return (int) INT.getVolatile(buffer, recordsStart + record * RECORD_BYTES + TIES);
+    }
+
+    /*---------------------------------------------------------------------------
+    | int importTextFile()                                                      |
+    |---------------------------------------------------------------------------|
+    | returns int: The player's record number.                                  |
+    |---------------------------------------------------------------------------|
+    | name: The player's name.                                                  |
+    | textFile: The player's old "<name>.txt" file, with their wins, losses     |
+    |           and ties on three lines.                                        |
+    |---------------------------------------------------------------------------|
+    | This program copies an old player file into the store. The file's         |
+    | totals replace whatever the store had for the player.                     |
+    ---------------------------------------------------------------------------*/
+    public int importTextFile(String name, Path textFile) throws IOException {
+        // variables
+        int wins;
+        int losses;
+        int ties;
+        int record;
+
+        try (BufferedReader reader = Files.newBufferedReader(textFile)) {
+            wins = Integer.parseInt(reader.readLine().trim());
+            losses = Integer.parseInt(reader.readLine().trim());
+            ties = Integer.parseInt(reader.readLine().trim());
+        } catch (NullPointerException | NumberFormatException e) {
+            throw new IOException(textFile + " is not a player file", e);
+        }
+        record = findOrCreate(name);
+        setStats(record, wins, losses, ties);
+        return record;
+    }
+
+    /*---------------------------------------------------------------------------
+    | void main()                                                               |
+    |---------------------------------------------------------------------------|
+    | Usage: java connectfour.StatsStore <store file> <name.txt files...>       |
+    |---------------------------------------------------------------------------|
+    | This program imports old player files, using the file name without        |
+    | ".txt" as the player's name.                                              |
+    ---------------------------------------------------------------------------*/
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.out.println("Usage: java connectfour.StatsStore <store file> <name.txt files...>");
+            return;
+        }
+        try (StatsStore store = open(Paths.get(args[0]), DEFAULT_CAPACITY)) {
+            for (int i = 1; i < args.length; i++) {
+                Path textFile = Paths.get(args[i]);
+                String name = textFile.getFileName().toString().replaceFirst("\\.txt$", "");
+                int record = store.importTextFile(name, textFile);
+                System.out.printf("%s: %d wins, %d losses, %d ties%n", name, store.wins(record),
+                        store.losses(record), store.ties(record));
+            }
+        }
+    }
+
+    private static byte[] encode(String name) {
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > MAX_NAME_BYTES) {
+            throw new IllegalArgumentException("name is longer than " + MAX_NAME_BYTES + " bytes: " + name);
+        }
+        return bytes;
+    }
+
+    private static int hash(byte[] nameBytes) {
+        int h = Arrays.hashCode(nameBytes) * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private boolean nameEquals(int record, byte[] nameBytes) {
+        int offset = recordsStart + record * RECORD_BYTES;
+        if (buffer.get(offset) != nameBytes.length) {
+            return false;
+        }
+        for (int i = 0; i < nameBytes.length; i++) {
+            if (buffer.get(offset + 1 + i) != nameBytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int size() {
+        return (int) INT.getAcquire(buffer, COUNT_OFFSET);
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    @Override
+    public void close() throws IOException {
+        buffer.force();
+        channel.close();
+    }
+}
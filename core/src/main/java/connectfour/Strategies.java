@@ -0,0 +1,141 @@
+package connectfour;
+
+import java.util.SplittableRandom;
+
+/**
+ * Builds strategies from short text specs, for the command line tools.
+ *
+ *   random             a random column that is not full
+ *   bot                what botTurn plays: the opening book, then the search
+ *                      with the connectfour.* settings, then the solver
+ *   search:D           search to depth D
+ *   search:D:MS        search to depth D or for MS milliseconds
+ *   heuristic:D        look D moves ahead and evaluate (HeuristicSearch), with
+ *                      the connectfour.eval.* weights
+ *   heuristic:D:W      the same with weights W, like "2,10,6,3"
+ */
+public class Strategies {
+
+    // constants
+    static final long TABLE_BYTES = 16L << 20; // every search strategy gets its own table
+
+    // variables
+    private static OpeningBook book;
+    private static boolean bookLoaded;
+
+    /*---------------------------------------------------------------------------
+    | Strategy create()                                                         |
+    |---------------------------------------------------------------------------|
+    | returns Strategy: A new strategy for the spec.                            |
+    |---------------------------------------------------------------------------|
+    | spec: The strategy spec, like "random" or "search:10".                    |
+    | seed: The seed for strategies that use random numbers.                    |
+    |---------------------------------------------------------------------------|
+    | This program throws an IllegalArgumentException for a spec it doesn't     |
+    | know.                                                                     |
+    ---------------------------------------------------------------------------*/
+    public static Strategy create(String spec, long seed) {
+        String[] parts = spec.split(":");
+        switch (parts[0]) {
+            case "random":
+                return random(seed);
+            case "bot":
+                return bot(openingBook());
+            case "search":
+                if (parts.length < 2 || parts.length > 3) {
+                    throw new IllegalArgumentException("expected search:depth or search:depth:ms, got " + spec);
+                }
+                return search(Integer.parseInt(parts[1]), parts.length == 3 ? Long.parseLong(parts[2]) : 0);
+            case "heuristic":
+                if (parts.length < 2 || parts.length > 3) {
+                    throw new IllegalArgumentException("expected heuristic:depth or heuristic:depth:weights, got " + spec);
+                }
+                return heuristic(Integer.parseInt(parts[1]),
+                        parts.length == 3 ? Evaluator.Weights.parse(parts[2]) : Evaluator.Weights.fromProperties());
+            default:
+                throw new IllegalArgumentException("unknown strategy: " + spec);
+        }
+    }
+
+    /*---------------------------------------------------------------------------
+    | Strategy random()                                                         |
+    |---------------------------------------------------------------------------|
+    | returns Strategy: A strategy playing a random column that is not full,    |
+    |                   like the first version of botTurn did.                  |
+    ---------------------------------------------------------------------------*/
+    public static Strategy random(long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        return board -> {
+            int col;
+            do {
+                col = random.nextInt(board.width());
+            } while (!board.canPlay(col));
+            return col;
+        };
+    }
+
+    /*---------------------------------------------------------------------------
+    | Strategy search()                                                         |
+    |---------------------------------------------------------------------------|
+    | returns Strategy: A strategy playing the search engine's move.            |
+    ---------------------------------------------------------------------------*/
+    public static Strategy search(int depth, long timeMillis) {
+        SearchEngine engine = new SearchEngine(depth, timeMillis, new TranspositionTable(TABLE_BYTES));
+        return board -> engine.search(board).bestMove;
+    }
+
+    /*---------------------------------------------------------------------------
+    | Strategy heuristic()                                                      |
+    |---------------------------------------------------------------------------|
+    | returns Strategy: A strategy playing the heuristic search's move.         |
+    ---------------------------------------------------------------------------*/
+    public static Strategy heuristic(int depth, Evaluator.Weights weights) {
+        HeuristicSearch search = new HeuristicSearch(depth, weights);
+        return board -> search.search(board).bestMove;
+    }
+
+    /*---------------------------------------------------------------------------
+    | Strategy bot()                                                            |
+    |---------------------------------------------------------------------------|
+    | returns Strategy: A strategy playing like botTurn, with its own search    |
+    |                   engine so it can run next to other games.               |
+    |---------------------------------------------------------------------------|
+    | book: The opening book, or null to always search.                         |
+    ---------------------------------------------------------------------------*/
+    public static Strategy bot(OpeningBook book) {
+        TranspositionTable table = new TranspositionTable(TABLE_BYTES);
+        long timeMillis = Long.getLong("connectfour.timeMs", 0);
+        SearchEngine engine = new SearchEngine(SearchEngine.depthFromProperties(timeMillis), timeMillis, table);
+        Solver solver = new Solver(table);
+        int solveEmptyCells = timeMillis > 0 ? -1 // the solver has no deadline
+                : Integer.getInteger("connectfour.solveEmpty", Solver.DEFAULT_EMPTY_CELLS);
+        return board -> {
+            int bookMove = book == null ? -1 : book.bestMove(board);
+            if (bookMove >= 0 && board.canPlay(bookMove)) {
+                return bookMove;
+            }
+            if (board.size() - board.moves() <= solveEmptyCells) {
+                return solver.solve(board).bestMove;
+            }
+            return engine.search(board).bestMove;
+        };
+    }
+
+    /*---------------------------------------------------------------------------
+    | OpeningBook openingBook()                                                 |
+    |---------------------------------------------------------------------------|
+    | returns OpeningBook: The default opening book, mapped once and shared by  |
+    |                      every bot strategy, or null if there is none.        |
+    ---------------------------------------------------------------------------*/
+    static synchronized OpeningBook openingBook() {
+        if (!bookLoaded) {
+            try {
+                book = OpeningBook.loadDefault();
+            } catch (java.io.IOException e) {
+                throw new java.io.UncheckedIOException(e);
+            }
+            bookLoaded = true;
+        }
+        return book;
+    }
+}
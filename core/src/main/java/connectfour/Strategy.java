@@ -0,0 +1,20 @@
+package connectfour;
+
+/**
+ * A way of picking moves, so bots can play each other without the console.
+ *
+ * A strategy is used by one thread at a time; every worker thread makes its
+ * own (see Strategies).
+ */
+public interface Strategy {
+
+    /*---------------------------------------------------------------------------
+    | int chooseMove()                                                          |
+    |---------------------------------------------------------------------------|
+    | returns int: The column (from 0) to play. It must not be full.            |
+    |---------------------------------------------------------------------------|
+    | board: The position, with this strategy to move. The board must be the    |
+    |        same when the method returns.                                      |
+    ---------------------------------------------------------------------------*/
+    int chooseMove(Board board);
+}
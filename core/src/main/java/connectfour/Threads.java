@@ -0,0 +1,45 @@
+package connectfour;
+
+import java.util.concurrent.*;
+
+/**
+ * Thread helpers shared by the server and its load-test client.
+ */
+public class Threads {
+
+    /*---------------------------------------------------------------------------
+    | ExecutorService newPerTaskExecutor()                                      |
+    |---------------------------------------------------------------------------|
+    | returns ExecutorService: An executor that starts one thread per task.     |
+    |---------------------------------------------------------------------------|
+    | On Java 21 and newer these are virtual threads, so ten thousand blocked   |
+    | sessions cost almost nothing. The build targets Java 17, so the virtual   |
+    | thread executor is looked up by reflection; on older JVMs this falls      |
+    | back to a cached pool of daemon platform threads.                         |
+    ---------------------------------------------------------------------------*/
+    public static ExecutorService newPerTaskExecutor(String name) {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(null, runnable, name, 256 * 1024);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /*---------------------------------------------------------------------------
+    | boolean virtualThreadsAvailable()                                         |
+    |---------------------------------------------------------------------------|
+    | returns boolean: True if newPerTaskExecutor hands out virtual threads.    |
+    ---------------------------------------------------------------------------*/
+    public static boolean virtualThreadsAvailable() {
+        try {
+            Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,341 @@
+package connectfour;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Round-robin tournament between bot configurations, reporting how strong
+ * and how fast each one is.
+ *
+ * Every pair of strategies plays the same set of openings: random positions a
+ * few moves into the game, none of them mirrors of each other and none with a
+ * win on the next move. Each opening is played twice, with each side moving
+ * first once, so neither side is helped by the opening or by going first.
+ * The openings and every strategy's random numbers come from the seed, and a
+ * pair's games are split into fixed chunks that don't depend on the number of
+ * threads, so a run can be repeated (strategies with a time budget play
+ * whatever their deadline lets them, so those games can differ).
+ *
+ * The chunks run on a pool of worker threads, and each chunk makes its own
+ * strategies and board. The time each strategy spends choosing its moves is
+ * added up, so the table shows milliseconds per move next to the strength.
+ *
+ * Elo ratings are fitted to all the games at once (Bradley-Terry, a draw is
+ * half a win) and shifted so they average 0. Every pair also gets one
+ * made-up draw, so a strategy that wins or loses everything still gets a
+ * finite rating. The +/- column is a 95% interval from the standard error of
+ * the fit, and is wide unless there are many games.
+ *
+ * Usage: java connectfour.Tournament [openings] [opening moves] [threads] [seed] [strategy ...]
+ *        (see Strategies for the strategy specs; the board is the
+ *        connectfour.cols, connectfour.rows and connectfour.connect variant)
+ */
+public class Tournament {
+
+    // constants
+    static final int OPENINGS_PER_CHUNK = 4; // openings played in one task, both colors each
+    static final double ELO_PER_LOG = 400 / Math.log(10);
+    static final String[] DEFAULT_STRATEGIES = {"search:4", "search:8", "heuristic:4", "heuristic:6"};
+
+    // indexes into a chunk's tally, for the first and second strategy of the pair
+    static final int WINS = 0;
+    static final int DRAWS = 1;
+    static final int LOSSES = 2;
+    static final int MOVES = 3;
+    static final int NANOS = 4;
+    static final int FIELDS = 5;
+
+    public static void main(String[] args) throws InterruptedException {
+        // variables and constants
+        int openingCount = args.length > 0 ? Integer.parseInt(args[0]) : 24;
+        int openingMoves = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : 1;
+        String[] specs = args.length > 4 ? Arrays.copyOfRange(args, 4, args.length) : DEFAULT_STRATEGIES;
+        int n = specs.length;
+        long start = System.nanoTime();
+        long[][][] results = new long[n][n][FIELDS]; // results[i][j]: i's games against j
+        double seconds;
+
+        if (n < 2) {
+            throw new IllegalArgumentException("a tournament needs at least two strategies");
+        }
+        for (String spec : specs) {
+            Strategies.create(spec, seed); // bad specs fail here, not in a worker
+        }
+        List<String> openings = openings(Board.fromProperties(), openingCount, openingMoves, seed);
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        Map<Future<long[][]>, int[]> chunks = new LinkedHashMap<>();
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 1; j < n; j++) {
+                for (int first = 0; first < openings.size(); first += OPENINGS_PER_CHUNK) {
+                    String specA = specs[i];
+                    String specB = specs[j];
+                    List<String> chunk = openings.subList(first, Math.min(first + OPENINGS_PER_CHUNK, openings.size()));
+                    long chunkSeed = ((seed * 1_000_003L + i) * 1_000_003L + j) * 1_000_003L + first;
+                    chunks.put(pool.submit(() -> playChunk(Strategies.create(specA, chunkSeed),
+                            Strategies.create(specB, ~chunkSeed), chunk)), new int[] {i, j});
+                }
+            }
+        }
+        try {
+            for (Map.Entry<Future<long[][]>, int[]> chunk : chunks.entrySet()) {
+                long[][] tally = chunk.getKey().get();
+                int i = chunk.getValue()[0];
+                int j = chunk.getValue()[1];
+                for (int f = 0; f < FIELDS; f++) {
+                    results[i][j][f] += tally[0][f];
+                    results[j][i][f] += tally[1][f];
+                }
+            }
+        } catch (ExecutionException ee) {
+            throw new IllegalStateException("tournament worker failed", ee.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+        seconds = (System.nanoTime() - start) / 1e9;
+
+        report(specs, results, openings.size(), openingMoves, threads, seconds);
+    }
+
+    /*---------------------------------------------------------------------------
+    | List<String> openings()                                                   |
+    |---------------------------------------------------------------------------|
+    | returns List<String>: Move strings of the openings, all different even    |
+    |                       when mirrored.                                      |
+    |---------------------------------------------------------------------------|
+    | board: A board of the variant, used to play the openings out.             |
+    | count: How many openings.                                                 |
+    | moves: How many random moves in each.                                     |
+    | seed: Where the random moves come from.                                   |
+    |---------------------------------------------------------------------------|
+    | This program throws an IllegalStateException if the variant doesn't have  |
+    | that many different openings.                                             |
+    ---------------------------------------------------------------------------*/
+    static List<String> openings(Board board, int count, int moves, long seed) {
+        // variables
+        SplittableRandom random = new SplittableRandom(seed);
+        Set<Long> seen = new HashSet<>();
+        List<String> openings = new ArrayList<>();
+        StringBuilder opening = new StringBuilder();
+
+        for (int attempt = 0; openings.size() < count; attempt++) {
+            if (attempt == 1000 * count) {
+                throw new IllegalStateException("only found " + openings.size() + " different openings of " + moves
+                        + " moves");
+            }
+            board.reset();
+            opening.setLength(0);
+            while (opening.length() < moves && !board.isFull()) {
+                if (!hasQuietMove(board)) {
+                    break; // every column wins, so this opening can't go on: start another
+                }
+                int col = random.nextInt(board.width());
+                if (board.canPlay(col) && !board.isWinningMove(col)) {
+                    board.drop(col);
+                    opening.append((char) ('1' + col));
+                }
+            }
+            if (opening.length() == moves && !canWinNow(board) && seen.add(board.canonicalKey())) {
+                openings.add(opening.toString());
+            }
+        }
+        return openings;
+    }
+
+    private static boolean hasQuietMove(Board board) {
+        for (int col = 0; col < board.width(); col++) {
+            if (board.canPlay(col) && !board.isWinningMove(col)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean canWinNow(Board board) {
+        for (int col = 0; col < board.width(); col++) {
+            if (board.canPlay(col) && board.isWinningMove(col)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /*---------------------------------------------------------------------------
+    | long[][] playChunk()                                                      |
+    |---------------------------------------------------------------------------|
+    | returns long[][]: The tally of a and of b: wins, draws, losses, moves     |
+    |                   chosen and nanoseconds spent choosing them.             |
+    |---------------------------------------------------------------------------|
+    | a, b: The two strategies.                                                 |
+    | openings: The openings to play, each once with a first and once with b    |
+    |           first.                                                          |
+    ---------------------------------------------------------------------------*/
+    static long[][] playChunk(Strategy a, Strategy b, List<String> openings) {
+        // variables
+        long[][] tally = new long[2][FIELDS];
+        Board board = Board.fromProperties();
+
+        for (String opening : openings) {
+            for (int aPlayer = 0; aPlayer < 2; aPlayer++) {
+                int winner = playGame(aPlayer == 0 ? a : b, aPlayer == 0 ? b : a, board, opening,
+                        tally[aPlayer], tally[1 - aPlayer]);
+                if (winner < 0) {
+                    tally[0][DRAWS]++;
+                    tally[1][DRAWS]++;
+                } else {
+                    tally[winner == aPlayer ? 0 : 1][WINS]++;
+                    tally[winner == aPlayer ? 1 : 0][LOSSES]++;
+                }
+            }
+        }
+        return tally;
+    }
+
+    /*---------------------------------------------------------------------------
+    | int playGame()                                                            |
+    |---------------------------------------------------------------------------|
+    | returns int: 0 if the first player won, 1 if the second player won, -1 if |
+    |              the game tied.                                               |
+    |---------------------------------------------------------------------------|
+    | first, second: The strategies, in the order they move.                    |
+    | board: The board to play on. It is reset first.                           |
+    | opening: The moves played before the strategies take over.                |
+    | firstTally, secondTally: Where each strategy's moves and time are added.  |
+    ---------------------------------------------------------------------------*/
+    static int playGame(Strategy first, Strategy second, Board board, String opening, long[] firstTally,
+            long[] secondTally) {
+        board.reset();
+        board.playMoves(opening);
+        while (!board.isFull()) {
+            int player = board.playerToMove();
+            long[] tally = player == 0 ? firstTally : secondTally;
+            long start = System.nanoTime();
+            int col = (player == 0 ? first : second).chooseMove(board);
+            tally[NANOS] += System.nanoTime() - start;
+            tally[MOVES]++;
+            board.drop(col);
+            if (board.lastMoveWins(col)) {
+                return player;
+            }
+        }
+        return -1;
+    }
+
+    /*---------------------------------------------------------------------------
+    | double[] ratings()                                                        |
+    |---------------------------------------------------------------------------|
+    | returns double[]: The Elo rating of each strategy, then its standard      |
+    |                   error: n ratings followed by n errors.                  |
+    |---------------------------------------------------------------------------|
+    | results: results[i][j] is the tally of i's games against j.               |
+    |---------------------------------------------------------------------------|
+    | This program fits the ratings with Newton steps on the Bradley-Terry      |
+    | likelihood, one strategy at a time, until they stop moving.               |
+    ---------------------------------------------------------------------------*/
+    static double[] ratings(long[][][] results) {
+        // variables
+        int n = results.length;
+        double[] rating = new double[n]; // in natural log units until the end
+        double[] out = new double[2 * n];
+
+        for (int round = 0; round < 1000; round++) {
+            double change = 0;
+            for (int i = 0; i < n; i++) {
+                double gradient = 0;
+                double information = 0;
+                for (int j = 0; j < n; j++) {
+                    if (j == i) {
+                        continue;
+                    }
+                    long[] r = results[i][j];
+                    double games = r[WINS] + r[DRAWS] + r[LOSSES] + 1; // plus the made-up draw
+                    double score = r[WINS] + (r[DRAWS] + 1) / 2.0;
+                    double expected = 1 / (1 + Math.exp(rating[j] - rating[i]));
+                    gradient += score - games * expected;
+                    information += games * expected * (1 - expected);
+                }
+                double step = gradient / information;
+                rating[i] += step;
+                change = Math.max(change, Math.abs(step));
+            }
+            if (change < 1e-9) {
+                break;
+            }
+        }
+
+        double mean = Arrays.stream(rating).average().orElse(0);
+        for (int i = 0; i < n; i++) {
+            double information = 0;
+            for (int j = 0; j < n; j++) {
+                if (j != i) {
+                    long[] r = results[i][j];
+                    double expected = 1 / (1 + Math.exp(rating[j] - rating[i]));
+                    information += (r[WINS] + r[DRAWS] + r[LOSSES] + 1) * expected * (1 - expected);
+                }
+            }
+            out[i] = (rating[i] - mean) * ELO_PER_LOG;
+            out[n + i] = ELO_PER_LOG / Math.sqrt(information);
+        }
+        return out;
+    }
+
+    /*---------------------------------------------------------------------------
+    | void report()                                                             |
+    |---------------------------------------------------------------------------|
+    | specs: The strategies.                                                    |
+    | results: results[i][j] is the tally of i's games against j.               |
+    | openings, openingMoves, threads, seconds: For the heading.                |
+    |---------------------------------------------------------------------------|
+    | This program prints the ratings table, strongest first, and the result of |
+    | every pair.                                                               |
+    ---------------------------------------------------------------------------*/
+    static void report(String[] specs, long[][][] results, int openings, int openingMoves, int threads,
+            double seconds) {
+        // variables
+        int n = specs.length;
+        double[] ratings = ratings(results);
+        Integer[] order = new Integer[n];
+        int width = 8;
+
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+            width = Math.max(width, specs[i].length());
+        }
+        Arrays.sort(order, (x, y) -> Double.compare(ratings[y], ratings[x]));
+
+        System.out.printf("%d strategies, %d openings of %d moves, %d games per pair, %d games on %d threads in %.2f s%n",
+                n, openings, openingMoves, 2 * openings, n * (n - 1) * openings, threads, seconds);
+        System.out.printf("%-4s %-" + width + "s %6s %6s %6s %7s %7s %10s%n",
+                "rank", "strategy", "elo", "+/-", "games", "score", "draws", "ms/move");
+        for (int rank = 0; rank < n; rank++) {
+            int i = order[rank];
+            long wins = 0;
+            long draws = 0;
+            long games = 0;
+            long moves = 0;
+            long nanos = 0;
+            for (int j = 0; j < n; j++) {
+                long[] r = results[i][j];
+                wins += r[WINS];
+                draws += r[DRAWS];
+                games += r[WINS] + r[DRAWS] + r[LOSSES];
+                moves += r[MOVES];
+                nanos += r[NANOS];
+            }
+            System.out.printf("%-4d %-" + width + "s %6.0f %6.0f %6d %6.1f%% %6.1f%% %10.3f%n",
+                    rank + 1, specs[i], ratings[i], 1.96 * ratings[n + i], games, 100.0 * (wins + draws / 2.0) / games,
+                    100.0 * draws / games, moves == 0 ? 0 : nanos / 1e6 / moves);
+        }
+
+        System.out.println("Pairs (wins-draws-losses of the first):");
+        for (int x = 0; x < n; x++) {
+            for (int y = x + 1; y < n; y++) {
+                long[] r = results[order[x]][order[y]];
+                System.out.printf("  %s vs %s: %d-%d-%d%n", specs[order[x]], specs[order[y]],
+                        r[WINS], r[DRAWS], r[LOSSES]);
+            }
+        }
+    }
+}
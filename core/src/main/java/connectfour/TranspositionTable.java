@@ -0,0 +1,211 @@
+package connectfour;
+
+/**
+ * Fixed-size transposition table for the search engine.
+ *
+ * The table remembers what the search found out about positions so the same
+ * position reached by a different move order is not searched again. It is one
+ * open-addressed slot per hash index, and the size is always a power of two so
+ * the index is a multiply and a shift. Keys and entries live in two long arrays,
+ * which keeps the table at 16 bytes per slot with nothing allocated per entry.
+ *
+ * An entry packs the score, depth, bound type, best move and the search
+ * generation it was stored in into one long:
+ *
+ *   bits 0-7   score + 128
+ *   bits 8-15  depth
+ *   bits 16-17 bound type (EXACT, LOWER or UPPER, 0 means empty)
+ *   bits 18-21 best move column, 15 if there is none
+ *   bits 22-29 generation
+ *
+ * Several search threads may share one table without locks. The key array
+ * holds the key XOR-ed with the entry, so if one thread reads a slot while
+ * another is halfway through writing it, the two halves will not match and
+ * the slot just looks like a miss. The counters are plain longs and may miss
+ * a few counts when threads share the table.
+ */
+public class TranspositionTable {
+
+    // constants
+    public static final int EXACT = 1; // the score is the real score
+    public static final int LOWER = 2; // the real score is at least the score (beta cut-off)
+    public static final int UPPER = 3; // the real score is at most the score (no move beat alpha)
+    public static final long BYTES_PER_ENTRY = 16;
+    private static final int NO_MOVE = 15;
+
+    // variables
+    private final long[] keys;
+    private final long[] entries;
+    private final int shift;
+    private int generation;
+    private long hits;
+    private long misses;
+    private long collisions;
+    private long stores;
+
+    /*---------------------------------------------------------------------------
+    | TranspositionTable()                                                      |
+    |---------------------------------------------------------------------------|
+    | memoryBytes: How much memory the table may use. It is rounded down to a   |
+    |              power of two number of slots, with at least 1024 slots.      |
+    ---------------------------------------------------------------------------*/
+    public TranspositionTable(long memoryBytes) {
+        long slots = Long.highestOneBit(Math.max(memoryBytes / BYTES_PER_ENTRY, 1024));
+        if (slots > (1 << 30)) {
+            throw new IllegalArgumentException("transposition table too big: " + memoryBytes + " bytes");
+        }
+        keys = new long[(int) slots];
+        entries = new long[(int) slots];
+        shift = 64 - Long.numberOfTrailingZeros(slots);
+    }
+
+    /*---------------------------------------------------------------------------
+    | int index()                                                               |
+    |---------------------------------------------------------------------------|
+    | returns int: The slot for the key. The key is multiplied by a large odd   |
+    |              constant and the top bits are used, which spreads the        |
+    |              bitboard keys (that only differ in a few bits) evenly.       |
+    ---------------------------------------------------------------------------*/
+    private int index(long key) {
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> shift);
+    }
+
+    /*---------------------------------------------------------------------------
+    | long probe()                                                              |
+    |---------------------------------------------------------------------------|
+    | returns long: The packed entry for the position, or 0 if it is not in     |
+    |               the table.                                                  |
+    |---------------------------------------------------------------------------|
+    | key: The position key (Board.key()).                                      |
+    ---------------------------------------------------------------------------*/
+    public long probe(long key) {
+        int i = index(key);
+        long entry = entries[i];
+        if (entry != 0 && (keys[i] ^ entry) == key) {
+            hits++;
+            return entry;
+        }
+        if (entry != 0) {
+            collisions++;
+        }
+        misses++;
+        return 0;
+    }
+
+    /*---------------------------------------------------------------------------
+    | void store()                                                              |
+    |---------------------------------------------------------------------------|
+    | key: The position key (Board.key()).                                      |
+    | score: The score found for the position.                                  |
+    | depth: How deep the position was searched.                                |
+    | bound: EXACT, LOWER or UPPER.                                             |
+    | move: The best column found, or -1 if there is none.                      |
+    |---------------------------------------------------------------------------|
+    | A slot holding another position is only replaced when the new entry was   |
+    | searched at least as deep, or when the old entry is from an earlier       |
+    | search and no longer worth much. The same position is always updated.     |
+    ---------------------------------------------------------------------------*/
+    public void store(long key, int score, int depth, int bound, int move) {
+        int i = index(key);
+        long old = entries[i];
+        if (old != 0 && (keys[i] ^ old) != key && generation(old) == generation && depth(old) > depth) {
+            return;
+        }
+        long entry = (score + 128)
+                | ((long) depth << 8)
+                | ((long) bound << 16)
+                | ((long) (move < 0 ? NO_MOVE : move) << 18)
+                | ((long) generation << 22);
+        keys[i] = key ^ entry;
+        entries[i] = entry;
+        stores++;
+    }
+
+    /*---------------------------------------------------------------------------
+    | void newSearch()                                                          |
+    |---------------------------------------------------------------------------|
+    | This program starts a new generation. Entries from older searches can     |
+    | then be replaced by anything.                                             |
+    ---------------------------------------------------------------------------*/
+    public void newSearch() {
+        generation = (generation + 1) & 0xFF;
+    }
+
+    /*---------------------------------------------------------------------------
+    | void clear()                                                              |
+    |---------------------------------------------------------------------------|
+    | This program empties the table and resets the counters.                   |
+    ---------------------------------------------------------------------------*/
+    public void clear() {
+        java.util.Arrays.fill(keys, 0);
+        java.util.Arrays.fill(entries, 0);
+        hits = 0;
+        misses = 0;
+        collisions = 0;
+        stores = 0;
+    }
+
+    public static int score(long entry) {
+        return (int) (entry & 0xFF) - 128;
+    }
+
+    public static int depth(long entry) {
+        return (int) (entry >>> 8) & 0xFF;
+    }
+
+    public static int bound(long entry) {
+        return (int) (entry >>> 16) & 0x3;
+    }
+
+    public static int move(long entry) {
+        int move = (int) (entry >>> 18) & 0xF;
+        return move == NO_MOVE ? -1 : move;
+    }
+
+    private static int generation(long entry) {
+        return (int) (entry >>> 22) & 0xFF;
+    }
+
+    public int capacity() {
+        return keys.length;
+    }
+
+    /*---------------------------------------------------------------------------
+    | int used()                                                                |
+    |---------------------------------------------------------------------------|
+    | returns int: How many slots hold an entry. This looks at every slot, so   |
+    |              it is for reports and benchmarks, not the search.            |
+    ---------------------------------------------------------------------------*/
+    public int used() {
+        int used = 0;
+        for (long entry : entries) {
+            if (entry != 0) {
+                used++;
+            }
+        }
+        return used;
+    }
+
+    public long hits() {
+        return hits;
+    }
+
+    public long misses() {
+        return misses;
+    }
+
+    public long collisions() {
+        return collisions;
+    }
+
+    public long stores() {
+        return stores;
+    }
+
+    @Override
+    public String toString() {
+        long probes = hits + misses;
+        return String.format("%d slots, %d hits, %d misses, %d collisions (%.1f%% hit rate)",
+                keys.length, hits, misses, collisions, probes == 0 ? 0.0 : 100.0 * hits / probes);
+    }
+}
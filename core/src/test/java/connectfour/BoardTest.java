@@ -0,0 +1,145 @@
+package connectfour;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks win detection on both boards and in the rules: hand-made wins in
+ * every direction (each also mirrored left to right), a tie on a full board,
+ * and random games where the bitboard and the grid board must agree.
+ */
+class BoardTest {
+
+    // constants
+    private static final int GAMES = 500;
+    private static final String TIE = "165775322175245373465547417441226311263663"; // no four anywhere
+
+    @Test
+    void findsWinsInARow() {
+        checkWin("112233", 4); // 1, 2 and 3 on the bottom row
+        checkWin("112244", 3); // the winning disc fills the gap
+    }
+
+    @Test
+    void findsWinsInAColumn() {
+        checkWin("121212", 1);
+        checkWin("717717272", 7); // rows 3 to 6, the top of the column
+    }
+
+    @Test
+    void findsWinsOnDiagonals() {
+        // variables
+        String[] below = {"", "1234", "12342143"}; // lifts the diagonal so it starts on row 1, 2 or 3
+
+        for (String filler : below) {
+            checkWin(filler + "1223433464", 4); // 1, 2 and 3 on the way up, then the top
+        }
+        checkWin("1334643442", 2); // the winning disc is the second of the four
+    }
+
+    @Test
+    void doesNotJoinTheTopOfOneColumnToTheNext() {
+        // the first player has rows 4 to 6 of column 1 and plays the bottom of column 2
+        checkNoWin("717161161715", 2);
+    }
+
+    @Test
+    void callsAFullBoardATie() {
+        for (Board board : boards()) {
+            int last = TIE.charAt(TIE.length() - 1) - '0';
+            board.playMoves(TIE.substring(0, TIE.length() - 1));
+
+            assertFalse(board.isWinningMove(last - 1));
+            board.drop(last - 1);
+            assertTrue(board.isFull());
+            assertEquals(GameResult.TIE, Rules.checkIfGameOver(board, last, Rules.BOT_CHIP));
+        }
+    }
+
+    @Test
+    void agreesWithTheGridBoardInRandomGames() {
+        // variables
+        Random random = new Random(7);
+        Board bits = new BitBoard();
+        Board grid = new GridBoard(BitBoard.WIDTH, BitBoard.HEIGHT, BitBoard.CONNECT);
+
+        for (int game = 0; game < GAMES; game++) {
+            bits.reset();
+            grid.reset();
+            boolean over = false;
+            while (!over) {
+                for (int col = 0; col < BitBoard.WIDTH; col++) {
+                    assertEquals(grid.canPlay(col), bits.canPlay(col));
+                    if (grid.canPlay(col)) {
+                        assertEquals(grid.isWinningMove(col), bits.isWinningMove(col), "game " + game + " column " + col);
+                    }
+                }
+                int col;
+                do {
+                    col = random.nextInt(BitBoard.WIDTH);
+                } while (!grid.canPlay(col));
+                bits.drop(col);
+                grid.drop(col);
+                assertEquals(grid.lastMoveWins(col), bits.lastMoveWins(col), "game " + game + " column " + col);
+                over = grid.lastMoveWins(col) || grid.isFull();
+                assertEquals(grid.isFull(), bits.isFull());
+            }
+        }
+    }
+
+    /*---------------------------------------------------------------------------
+    | void checkWin()                                                           |
+    |---------------------------------------------------------------------------|
+    | moves: The moves before the winning one.                                  |
+    | winningCol: The column (from 1) that wins for the player to move.         |
+    |---------------------------------------------------------------------------|
+    | This program checks the win on both boards, and the mirrored win too.     |
+    ---------------------------------------------------------------------------*/
+    private static void checkWin(String moves, int winningCol) {
+        checkWinOnce(moves, winningCol);
+        checkWinOnce(mirror(moves), BitBoard.WIDTH + 1 - winningCol);
+    }
+
+    private static void checkWinOnce(String moves, int winningCol) {
+        for (Board board : boards()) {
+            board.playMoves(moves);
+            char chip = board.playerToMove() == 0 ? Rules.USER_CHIP : Rules.BOT_CHIP;
+            String where = board.getClass().getSimpleName() + " " + moves + " then " + winningCol;
+
+            assertTrue(board.isWinningMove(winningCol - 1), where);
+            board.drop(winningCol - 1);
+            assertTrue(board.lastMoveWins(winningCol - 1), where);
+            assertEquals(chip == Rules.USER_CHIP ? GameResult.USER_WIN : GameResult.BOT_WIN,
+                    Rules.checkIfGameOver(board, winningCol, chip), where);
+        }
+    }
+
+    private static void checkNoWin(String moves, int col) {
+        for (String played : new String[] {moves, mirror(moves)}) {
+            int playedCol = played == moves ? col : BitBoard.WIDTH + 1 - col;
+            for (Board board : boards()) {
+                board.playMoves(played);
+                String where = board.getClass().getSimpleName() + " " + played + " then " + playedCol;
+
+                assertFalse(board.isWinningMove(playedCol - 1), where);
+                board.drop(playedCol - 1);
+                assertFalse(board.lastMoveWins(playedCol - 1), where);
+                assertEquals(GameResult.NOT_OVER, Rules.checkIfGameOver(board, playedCol, Rules.USER_CHIP), where);
+            }
+        }
+    }
+
+    private static Board[] boards() {
+        return new Board[] {new BitBoard(), new GridBoard(BitBoard.WIDTH, BitBoard.HEIGHT, BitBoard.CONNECT)};
+    }
+
+    private static String mirror(String moves) {
+        char[] mirrored = moves.toCharArray();
+        for (int i = 0; i < mirrored.length; i++) {
+            mirrored[i] = (char) ('1' + BitBoard.WIDTH - 1 - (mirrored[i] - '1'));
+        }
+        return new String(mirrored);
+    }
+}
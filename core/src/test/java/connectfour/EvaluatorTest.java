@@ -0,0 +1,96 @@
+package connectfour;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks that the evaluator's running score always matches a rescan of the
+ * board, through random games and back again with undo.
+ */
+class EvaluatorTest {
+
+    // constants
+    private static final int GAMES = 200;
+
+    @Test
+    void countsTheWindowsOfTheUsualBoard() {
+        assertEquals(69, new Evaluator(BitBoard.WIDTH, BitBoard.HEIGHT, BitBoard.CONNECT, Evaluator.Weights.DEFAULT).windows());
+    }
+
+    @Test
+    void scoresAnOpenThree() {
+        // the first player has 1, 2 and 3 on the bottom row, and the bottom of 4 is still empty
+        Board board = new BitBoard();
+        board.playMoves("15253");
+
+        assertEquals(-1, new Evaluator(board, new Evaluator.Weights(0, 1, 0, 0)).evaluate()); // the second player's turn
+        assertEquals(-1, new Evaluator(board, new Evaluator.Weights(0, 0, 1, 0)).evaluate()); // row 1 suits the first player
+    }
+
+    @Test
+    void scoresTheCenter() {
+        Board board = new BitBoard();
+        board.playMoves("4");
+
+        assertEquals(-1, new Evaluator(board, new Evaluator.Weights(0, 0, 0, 1)).evaluate());
+    }
+
+    @Test
+    void followsTheMovesOnTheBitBoard() {
+        checkAgainstRescan(Board.create(BitBoard.WIDTH, BitBoard.HEIGHT, BitBoard.CONNECT), 1);
+    }
+
+    @Test
+    void followsTheMovesOnGridVariants() {
+        checkAgainstRescan(Board.create(9, 7, 5), 2);
+        checkAgainstRescan(Board.create(6, 5, 3), 3); // two center columns
+    }
+
+    @Test
+    void copyFromMatchesTheMovesThatLedThere() {
+        // variables
+        Board board = new BitBoard();
+        Evaluator following = new Evaluator(board, Evaluator.Weights.DEFAULT);
+        Evaluator copied = new Evaluator(board, Evaluator.Weights.DEFAULT);
+
+        for (char move : "4453322165".toCharArray()) {
+            board.drop(move - '1');
+            following.drop(move - '1');
+            copied.copyFrom(board);
+            assertEquals(copied.evaluate(), following.evaluate());
+        }
+    }
+
+    private static void checkAgainstRescan(Board board, long seed) {
+        // variables
+        Evaluator evaluator = new Evaluator(board, Evaluator.Weights.DEFAULT);
+        Random random = new Random(seed);
+        Deque<Integer> played = new ArrayDeque<>();
+
+        for (int game = 0; game < GAMES; game++) {
+            while (!board.isFull()) {
+                int col = random.nextInt(board.width());
+                if (!board.canPlay(col)) {
+                    continue;
+                }
+                boolean wins = board.isWinningMove(col);
+                board.drop(col);
+                evaluator.drop(col);
+                played.push(col);
+                assertEquals(evaluator.rescan(board), evaluator.evaluate(), "after " + played.size() + " moves");
+                if (wins) {
+                    break;
+                }
+            }
+            while (!played.isEmpty()) {
+                int col = played.pop();
+                board.undo(col);
+                evaluator.undo(col);
+                assertEquals(evaluator.rescan(board), evaluator.evaluate(), "back at " + played.size() + " moves");
+            }
+            assertEquals(0, evaluator.evaluate());
+        }
+    }
+}
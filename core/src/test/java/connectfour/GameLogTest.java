@@ -0,0 +1,144 @@
+package connectfour;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Checks that games appended to a log are scanned back as they were written,
+ * from one thread or many, and that bad input or a damaged file doesn't
+ * garble the records around it.
+ */
+class GameLogTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void scansBackWhatWasAppended() throws IOException {
+        // variables
+        Path file = dir.resolve("games.log");
+        List<String> scanned = new ArrayList<>();
+
+        try (GameLog log = GameLog.open(file, 7, 6, 4, false)) {
+            log.append(3, GameResult.USER_WIN, "4453");
+            log.append(-1, GameResult.BOT_WIN, "12345"); // an odd number of moves leaves half a byte
+            log.append(0, GameResult.TIE, "");
+        }
+        try (GameLog log = GameLog.open(file, 7, 6, 4, false)) {
+            log.append(7, GameResult.BOT_WIN, "7777");
+        }
+
+        assertEquals(4, GameLog.scan(file, record -> scanned.add(record.player() + " " + record.result() + " " + record.moves())));
+        assertEquals(List.of("3 USER_WIN 4453", "-1 BOT_WIN 12345", "0 TIE ", "7 BOT_WIN 7777"), scanned);
+    }
+
+    @Test
+    void keepsTheWidestColumns() throws IOException {
+        // variables
+        Path file = dir.resolve("wide.log");
+        String moves = "?>=<;:987654321"; // columns 15 down to 1
+        List<String> scanned = new ArrayList<>();
+
+        try (GameLog log = GameLog.open(file, 15, 15, 5, false)) {
+            log.append(1, GameResult.TIE, moves);
+        }
+        GameLog.scan(file, record -> scanned.add(record.moves()));
+
+        assertEquals(List.of(moves), scanned);
+    }
+
+    @Test
+    void aBadMoveStringAddsNothing() throws IOException {
+        // variables
+        Path file = dir.resolve("games.log");
+        List<String> scanned = new ArrayList<>();
+
+        try (GameLog log = GameLog.open(file, 7, 6, 4, false)) {
+            log.append(1, GameResult.USER_WIN, "4455");
+            assertThrows(IllegalArgumentException.class, () -> log.append(2, GameResult.BOT_WIN, "44x5"));
+            assertThrows(IllegalArgumentException.class, () -> log.append(2, GameResult.BOT_WIN, "1".repeat(300)));
+            log.append(3, GameResult.TIE, "1234567");
+        }
+        GameLog.scan(file, record -> scanned.add(record.player() + " " + record.moves()));
+
+        assertEquals(List.of("1 4455", "3 1234567"), scanned);
+    }
+
+    @Test
+    void leavesOutARecordCutOffAtTheEnd() throws IOException {
+        // variables
+        Path file = dir.resolve("games.log");
+        List<String> scanned = new ArrayList<>();
+
+        try (GameLog log = GameLog.open(file, 7, 6, 4, false)) {
+            log.append(1, GameResult.USER_WIN, "4455");
+            log.append(2, GameResult.BOT_WIN, "44556677");
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 3);
+        }
+        assertEquals(1, GameLog.scan(file, record -> assertEquals(1, record.player())));
+
+        try (GameLog log = GameLog.open(file, 7, 6, 4, false)) {
+            log.append(3, GameResult.TIE, "1234567"); // goes where the cut off record began
+        }
+        GameLog.scan(file, record -> scanned.add(record.player() + " " + record.moves()));
+
+        assertEquals(List.of("1 4455", "3 1234567"), scanned);
+    }
+
+    @Test
+    void refusesOtherFilesAndVariants() throws IOException {
+        // variables
+        Path file = dir.resolve("games.log");
+        Path other = dir.resolve("notes.txt");
+
+        GameLog.open(file, 7, 6, 4, false).close();
+        Files.writeString(other, "not a game log at all");
+
+        assertThrows(IOException.class, () -> GameLog.open(file, 9, 7, 5, false));
+        assertThrows(IOException.class, () -> GameLog.open(other, 7, 6, 4, false));
+        assertThrows(IOException.class, () -> GameLog.scan(other, record -> { }));
+        assertThrows(IllegalArgumentException.class, () -> GameLog.open(dir.resolve("big.log"), 16, 6, 4, false));
+    }
+
+    @Test
+    void keepsEveryGameAppendedAtOnce() throws Exception {
+        // variables and constants
+        final int threads = 8;
+        final int games = 200;
+        Path file = dir.resolve("games.log");
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> done = new ArrayList<>();
+
+        try (GameLog log = GameLog.open(file, 7, 6, 4, true)) {
+            for (int t = 0; t < threads; t++) {
+                int player = t;
+                done.add(executor.submit(() -> {
+                    for (int i = 0; i < games; i++) {
+                        log.append(player, GameResult.USER_WIN, "4453" + (char) ('1' + i % 7));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : done) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        Map<Integer, int[]> totals = GameLog.totals(file);
+        assertEquals(threads, totals.size());
+        for (int[] total : totals.values()) {
+            assertArrayEquals(new int[] {games, 0, 0}, total);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package connectfour;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Checks a server session's moves, undo and result, and that the server
+ * records a finished game once.
+ */
+class GameSessionTest {
+
+    // constants
+    private static final int BOT_DEPTH = 4;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void needsAGameFirst() {
+        GameSession session = new GameSession(new SearchEngine(BOT_DEPTH, 0));
+
+        assertThrows(IllegalStateException.class, () -> session.move(4));
+        assertThrows(IllegalStateException.class, session::undo);
+    }
+
+    @Test
+    void refusesIllegalColumns() {
+        GameSession session = newGame();
+
+        assertThrows(IllegalArgumentException.class, () -> session.move(0));
+        assertThrows(IllegalArgumentException.class, () -> session.move(BitBoard.WIDTH + 1));
+        assertEquals("", session.moves());
+    }
+
+    @Test
+    void undoTakesBackTheMoveAndTheAnswer() {
+        GameSession session = newGame();
+
+        int botCol = session.move(4);
+        session.move(4);
+        String afterOne = "4" + botCol;
+        session.undo();
+
+        assertEquals(afterOne, session.moves());
+        assertEquals(GameResult.NOT_OVER, session.result());
+        session.undo();
+        assertEquals("", session.moves());
+        assertThrows(IllegalStateException.class, session::undo);
+    }
+
+    @Test
+    void aFinishedGameCantBeTakenBack() {
+        GameSession session = newGame();
+
+        playToTheEnd(session);
+        String moves = session.moves();
+
+        assertTrue(session.result().isOver());
+        assertThrows(IllegalStateException.class, session::undo);
+        assertThrows(IllegalStateException.class, () -> session.move(1));
+        assertEquals(moves, session.moves());
+    }
+
+    @Test
+    void theServerRecordsAFinishedGameOnce() throws IOException {
+        // variables
+        Path statsFile = dir.resolve("players.stats");
+        Path logFile = dir.resolve("games.log");
+
+        try (StatsStore stats = StatsStore.open(statsFile, 16);
+             GameLog games = GameLog.open(logFile, BitBoard.WIDTH, BitBoard.HEIGHT, BitBoard.CONNECT, false);
+             GameServer server = new GameServer(0, BOT_DEPTH, 0, stats, games)) {
+            GameSession session = new GameSession(new SearchEngine(BOT_DEPTH, 0));
+            assertEquals("OK JOINED ann", server.execute(session, "JOIN ann"));
+
+            String reply;
+            int col = 1;
+            do {
+                while (!canPlay(session, col)) {
+                    col++;
+                }
+                reply = server.execute(session, "MOVE " + col);
+                assertTrue(reply.startsWith("MOVED"), reply);
+            } while (!session.result().isOver());
+
+            assertTrue(server.execute(session, "UNDO").startsWith("ERR"));
+            assertTrue(server.execute(session, "MOVE " + col).startsWith("ERR"));
+
+            int player = stats.find("ann");
+            assertEquals(1, stats.wins(player) + stats.losses(player) + stats.ties(player));
+        }
+        assertEquals(1, GameLog.scan(logFile, record -> { }));
+    }
+
+    private static GameSession newGame() {
+        GameSession session = new GameSession(new SearchEngine(BOT_DEPTH, 0));
+        session.join("ann", -1);
+        return session;
+    }
+
+    // the player always takes the leftmost column with room, which the bot soon beats
+    private static void playToTheEnd(GameSession session) {
+        int col = 1;
+        while (!session.result().isOver()) {
+            while (!canPlay(session, col)) {
+                col++;
+            }
+            session.move(col);
+        }
+    }
+
+    private static boolean canPlay(GameSession session, int col) {
+        return session.boardRows().charAt(col - 1) == '.'; // the top row is first
+    }
+}
@@ -0,0 +1,44 @@
+package connectfour;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.*;
+import java.nio.charset.Charset;
+import java.util.*;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks how input lines become events, and that they come out in order
+ * with END for good once the input is closed.
+ */
+class InputPipelineTest {
+
+    @Test
+    void typesEveryLine() {
+        assertEquals(InputPipeline.Event.Kind.MOVE, InputPipeline.Event.parse(" 4 ").kind());
+        assertEquals(4, InputPipeline.Event.parse(" 4 ").column());
+        assertEquals(InputPipeline.Event.Kind.ANSWER, InputPipeline.Event.parse("Yes").kind());
+        assertEquals('y', InputPipeline.Event.parse("Yes").letter());
+        assertEquals('n', InputPipeline.Event.parse(" N").letter());
+        assertEquals('n', InputPipeline.Event.parse("never").letter()); // "no" to one question, "new" to the other
+        assertEquals('r', InputPipeline.Event.parse("Returning").letter());
+        assertEquals(InputPipeline.Event.Kind.ANSWER, InputPipeline.Event.parse("four").kind());
+        assertEquals(0, InputPipeline.Event.parse("").letter()); // a blank answer has no letter
+        assertEquals("Nancy Drew", InputPipeline.Event.parse("  Nancy Drew ").text()); // a name keeps its text
+    }
+
+    @Test
+    void handsOutTheLinesInOrderThenEnd() throws IOException {
+        // variables
+        InputStream in = new ByteArrayInputStream("new\nann\n4\nno\n".getBytes(Charset.defaultCharset()));
+        List<String> events = new ArrayList<>();
+
+        try (InputPipeline input = new InputPipeline(in)) {
+            for (int i = 0; i < 6; i++) {
+                events.add(input.take().toString());
+            }
+        }
+
+        assertEquals(List.of("ANSWER new", "ANSWER ann", "MOVE 4", "ANSWER no", "END ", "END "), events);
+    }
+}
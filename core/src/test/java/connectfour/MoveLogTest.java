@@ -0,0 +1,153 @@
+package connectfour;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks undo and redo at both ends of the log, that a snapshot never
+ * changes when the log plays over moves it shares, and that move strings
+ * round-trip on boards wider than nine columns.
+ */
+class MoveLogTest {
+
+    @Test
+    void undoesAndRedoesUpToTheEnds() {
+        MoveLog log = new MoveLog(new BitBoard());
+
+        assertFalse(log.undo());
+        assertFalse(log.redo());
+        assertEquals(-1, log.lastMove());
+
+        log.playMoves("445");
+        long key = log.board().key();
+        assertTrue(log.undo());
+        assertTrue(log.undo());
+        assertTrue(log.undo());
+        assertFalse(log.undo());
+        assertEquals(0, log.board().moves());
+        assertTrue(log.canRedo());
+
+        assertTrue(log.redo());
+        assertTrue(log.redo());
+        assertTrue(log.redo());
+        assertFalse(log.redo());
+        assertEquals(key, log.board().key());
+        assertEquals("445", log.toString());
+        assertEquals(4, log.lastMove());
+    }
+
+    @Test
+    void playingTheUndoneMoveKeepsTheRedos() {
+        MoveLog log = new MoveLog(new BitBoard());
+        log.playMoves("1234");
+        log.undo();
+        log.undo();
+
+        log.play(2); // column 3, the move that was undone
+        assertTrue(log.canRedo());
+        assertTrue(log.redo());
+        assertEquals("1234", log.toString());
+
+        log.undo();
+        log.undo();
+        log.play(6); // something else: the undone moves are gone
+        assertFalse(log.canRedo());
+        assertEquals("127", log.toString());
+    }
+
+    @Test
+    void aSnapshotKeepsItsMovesWhenTheLogPlaysOverThem() {
+        // variables
+        MoveLog log = new MoveLog(new BitBoard());
+        Board replay = new BitBoard();
+        Board expected = new BitBoard();
+
+        log.playMoves("4453");
+        MoveLog.Snapshot snapshot = log.snapshot();
+        log.undo();
+        log.undo();
+        log.play(0);
+        log.play(6);
+
+        assertEquals("4417", log.toString());
+        assertEquals("4453", snapshot.toString());
+        assertEquals(4, snapshot.length());
+        assertEquals(2, snapshot.move(3));
+        snapshot.applyTo(replay);
+        expected.playMoves("4453");
+        assertEquals(expected.key(), replay.key());
+    }
+
+    @Test
+    void aRestoredLogLeavesOtherSnapshotsAlone() {
+        // variables
+        MoveLog log = new MoveLog(new BitBoard());
+        MoveLog other = new MoveLog(new BitBoard());
+
+        log.playMoves("4444");
+        MoveLog.Snapshot deep = log.snapshot();
+        log.undo();
+        log.undo();
+        MoveLog.Snapshot shallow = log.snapshot(); // shares the array with deep
+
+        other.restore(shallow);
+        assertFalse(other.canRedo());
+        other.play(0); // over the moves deep still uses
+        other.play(1);
+
+        assertEquals("4412", other.toString());
+        assertEquals("4444", deep.toString());
+        assertEquals("44", shallow.toString());
+        assertEquals("44", log.toString());
+        assertTrue(log.redo()); // the log itself still has its undone moves
+        assertEquals("444", log.toString());
+    }
+
+    @Test
+    void snapshotsOfTheSamePositionAreEqual() {
+        MoveLog log = new MoveLog(new BitBoard());
+        MoveLog other = new MoveLog(new BitBoard());
+        log.playMoves("4453");
+        other.playMoves("44536");
+        other.undo();
+
+        assertEquals(log.snapshot(), other.snapshot());
+        assertEquals(log.snapshot().hashCode(), other.snapshot().hashCode());
+        other.undo();
+        assertNotEquals(log.snapshot(), other.snapshot());
+    }
+
+    @Test
+    void writesColumnsPastNineAndReadsThemBack() {
+        // variables
+        Board board = Board.create(12, 6, 4);
+        MoveLog log = new MoveLog(board);
+        String moves = ":;<1:"; // columns 10, 11, 12, 1 and 10 again
+
+        log.playMoves(moves);
+
+        assertEquals(moves, log.toString());
+        assertEquals(moves, log.snapshot().toString());
+        assertEquals(9, log.lastMove());
+        assertEquals(0, board.cell(0, 9)); // the first player's discs
+        assertEquals(0, board.cell(1, 9));
+        assertEquals(0, board.cell(0, 11));
+        assertEquals(1, board.cell(0, 10)); // the second player's
+        assertEquals(1, board.cell(0, 0));
+    }
+
+    @Test
+    void refusesIllegalMovesAndStartsOver() {
+        MoveLog log = new MoveLog(new BitBoard());
+
+        assertThrows(IllegalArgumentException.class, () -> log.playMoves("44x"));
+        assertEquals(0, log.length());
+        assertEquals(0, log.board().moves());
+        assertThrows(IllegalArgumentException.class, () -> log.playMoves("4444444")); // the column holds 6
+        log.playMoves("1212121"); // the winning move may be the last one
+        assertThrows(IllegalArgumentException.class, () -> log.playMoves("12121212")); // but nothing after it
+        assertThrows(IllegalArgumentException.class, () -> log.play(7));
+        assertEquals("", log.toString());
+    }
+}
@@ -0,0 +1,85 @@
+package connectfour;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Checks that a book written to a file is mapped back with every record
+ * found, mirror images flipped, and nothing made up for other positions.
+ */
+class OpeningBookTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void findsEveryRecordOfABigBook() throws IOException {
+        // variables and constants
+        final int count = 20_000; // more than one 64 KB write
+        Path file = dir.resolve("big.book");
+        long[] records = new long[count];
+
+        for (int i = 0; i < count; i++) {
+            records[i] = OpeningBook.record(3L * i + 1, i % 40 - 20, i % 7);
+        }
+        OpeningBook.write(file, 8, records, count);
+        OpeningBook book = OpeningBook.load(file);
+
+        assertEquals(count, book.size());
+        assertEquals(8, book.plies());
+        for (int i = 0; i < count; i++) {
+            long record = book.probe(3L * i + 1);
+            assertEquals(i % 40 - 20, OpeningBook.score(record));
+            assertEquals(i % 7, OpeningBook.move(record));
+            assertEquals(0, book.probe(3L * i + 2));
+        }
+    }
+
+    @Test
+    void flipsTheMoveForAMirrorImage() throws IOException {
+        // variables
+        Path file = dir.resolve("small.book");
+        Board board = new BitBoard();
+        Board mirror = new BitBoard();
+
+        board.playMoves("12");
+        mirror.playMoves("76");
+        long key = board.canonicalKey();
+        int move = board.key() == key ? 2 : BitBoard.WIDTH - 1 - 2; // column 3 on the board, 5 on the mirror
+        OpeningBook.write(file, 2, new long[] {OpeningBook.record(key, 0, move)}, 1);
+        OpeningBook book = OpeningBook.load(file);
+
+        assertEquals(2, book.bestMove(board));
+        assertEquals(4, book.bestMove(mirror));
+    }
+
+    @Test
+    void knowsNothingElse() throws IOException {
+        // variables
+        Path file = dir.resolve("small.book");
+        Board board = new BitBoard();
+
+        OpeningBook.write(file, 2, new long[] {OpeningBook.record(board.canonicalKey(), 1, 3)}, 1);
+        OpeningBook book = OpeningBook.load(file);
+
+        assertEquals(3, book.bestMove(board));
+        board.playMoves("4");
+        assertEquals(-1, book.bestMove(board)); // not in the book
+        board.playMoves("444");
+        assertEquals(-1, book.bestMove(board)); // deeper than the book
+        assertEquals(-1, book.bestMove(Board.create(9, 7, 5))); // not the usual game
+    }
+
+    @Test
+    void refusesOtherFiles() throws IOException {
+        Path other = dir.resolve("notes.txt");
+        Files.writeString(other, "not an opening book at all");
+
+        assertThrows(IOException.class, () -> OpeningBook.load(other));
+    }
+}
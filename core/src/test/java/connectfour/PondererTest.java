@@ -0,0 +1,170 @@
+package connectfour;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks that pondered results are only used for the reply the player made
+ * and once they are deep enough, that cancelling stops a deep search, and
+ * that a closed ponderer leaves no thread behind.
+ */
+class PondererTest {
+
+    // constants
+    private static final long TABLE_BYTES = 1 << 20;
+    private static final long WAIT_MILLIS = 10_000; // far longer than any wait should take
+    private static final long CANCEL_MILLIS = 1000;
+
+    @Test
+    void takesTheResultForTheReplyPlayed() throws InterruptedException {
+        // variables
+        Board position = new BitBoard();
+
+        position.playMoves("44"); // the player to move
+        try (Ponderer ponderer = new Ponderer(4, 0, new TranspositionTable(TABLE_BYTES))) {
+            assertNull(ponderer.take(after(position, "3")), "nothing was pondered");
+
+            ponderUntilDone(ponderer, position);
+            SearchResult result = ponderer.take(after(position, "3"));
+            assertNotNull(result);
+            assertEquals(4, result.depth);
+            assertEquals(new SearchEngine(4, 0, new TranspositionTable(TABLE_BYTES)).search(after(position, "3")).score,
+                    result.score);
+
+            ponderUntilDone(ponderer, position);
+            assertNull(ponderer.take(after(position, "34")), "two moves on");
+
+            ponderUntilDone(ponderer, position);
+            Board otherGame = new BitBoard();
+            otherGame.playMoves("453");
+            assertNull(ponderer.take(otherGame), "a reply to a different position");
+        }
+    }
+
+    @Test
+    void waitsUntilThePonderingIsAsDeepAsTheBotsLastSearch() throws InterruptedException {
+        // variables
+        Board position = new BitBoard();
+
+        position.playMoves("44");
+        try (Ponderer ponderer = new Ponderer(SearchEngine.NO_DEPTH_LIMIT, 1000, new TranspositionTable(TABLE_BYTES))) {
+            ponderer.searched(new SearchResult(3, 0, 3, 0, 0)); // the bot got to depth 3 in time
+            ponderer.start(position, board -> true);
+            Thread.sleep(300); // depth 3 takes a few milliseconds
+            SearchResult result = ponderer.take(after(position, "3"));
+            assertNotNull(result);
+            assertTrue(result.depth >= 3);
+
+            ponderer.searched(new SearchResult(3, 0, BitBoard.SIZE, 0, 0)); // to the end of the game, out of reach here
+            ponderer.start(position, board -> true);
+            Thread.sleep(300);
+            assertNull(ponderer.take(after(position, "3")));
+        }
+    }
+
+    @Test
+    void cancelStopsADeepSearch() throws InterruptedException {
+        // variables
+        Board position = new BitBoard();
+        AtomicReference<Thread> ponder = new AtomicReference<>();
+
+        position.playMoves("4");
+        try (Ponderer ponderer = new Ponderer(SearchEngine.NO_DEPTH_LIMIT, 0, new TranspositionTable(TABLE_BYTES))) {
+            ponderer.start(position, remember(ponder));
+            Thread.sleep(200); // well into the deep searches, which would take far longer than the test
+            long start = System.currentTimeMillis();
+            ponderer.cancel();
+
+            assertTrue(System.currentTimeMillis() - start < CANCEL_MILLIS, "cancel took too long");
+            awaitIdle(ponder); // the search has ended, the thread is on its way back to the queue
+        }
+    }
+
+    @Test
+    void startsAgainAfterCancel() throws InterruptedException {
+        // variables
+        Board position = new BitBoard();
+        AtomicReference<Thread> ponder = new AtomicReference<>();
+
+        position.playMoves("44");
+        try (Ponderer ponderer = new Ponderer(18, 0, new TranspositionTable(TABLE_BYTES))) { // about half a second
+            ponderer.start(position, remember(ponder));
+            while (ponder.get() == null) {
+                Thread.sleep(1);
+            }
+            Thread.sleep(50);
+            ponderer.cancel(); // stops an engine in the middle of a search, whichever reply it was on
+
+            for (int col = 0; col < position.width(); col++) {
+                ponderUntilDone(ponderer, position); // the table has most of it already
+                SearchResult result = ponderer.take(after(position, String.valueOf(col + 1)));
+                assertNotNull(result, "reply " + (col + 1));
+                assertTrue(result.depth == 18 || (result.score != 0 && result.depth > 0), // a stopped engine finishes no depth
+                        "reply " + (col + 1) + ": " + result);
+            }
+        }
+    }
+
+    @Test
+    void leavesNoThreadAfterClose() throws InterruptedException {
+        // variables
+        int before = ponderThreads();
+        Board position = new BitBoard();
+        Ponderer ponderer = new Ponderer(SearchEngine.NO_DEPTH_LIMIT, 0, new TranspositionTable(TABLE_BYTES));
+
+        position.playMoves("4");
+        ponderer.start(position, board -> true);
+        assertEquals(before + 1, ponderThreads());
+        ponderer.close();
+
+        long deadline = System.currentTimeMillis() + WAIT_MILLIS;
+        while (ponderThreads() > before && System.currentTimeMillis() < deadline) {
+            Thread.sleep(1); // the thread ends just after close() returns
+        }
+        assertEquals(before, ponderThreads());
+    }
+
+    private static Board after(Board position, String replies) {
+        Board board = position.copy();
+        for (char move : replies.toCharArray()) {
+            board.drop(move - '1');
+        }
+        return board;
+    }
+
+    private static void ponderUntilDone(Ponderer ponderer, Board position) throws InterruptedException {
+        AtomicReference<Thread> ponder = new AtomicReference<>(); // set once this position's pondering has begun
+        ponderer.start(position, remember(ponder));
+        awaitIdle(ponder);
+    }
+
+    // every reply is worth pondering, and the pondering thread is kept so the test can wait for it
+    private static Predicate<Board> remember(AtomicReference<Thread> ponder) {
+        return board -> {
+            ponder.set(Thread.currentThread());
+            return true;
+        };
+    }
+
+    // waits until the pondering thread has nothing left to search and sits in its queue again
+    private static void awaitIdle(AtomicReference<Thread> ponder) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + WAIT_MILLIS;
+        while (ponder.get() == null || ponder.get().getState() != Thread.State.WAITING) {
+            assertTrue(System.currentTimeMillis() < deadline, "the pondering didn't finish");
+            Thread.sleep(1);
+        }
+    }
+
+    private static int ponderThreads() {
+        int count = 0;
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (thread.getName().equals("ponder") && thread.isAlive()) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
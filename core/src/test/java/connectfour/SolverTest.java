@@ -0,0 +1,133 @@
+package connectfour;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks the solver against a plain negamax that tries every move to the end
+ * of the game, on positions near the end where that is still quick.
+ */
+class SolverTest {
+
+    // constants
+    private static final int POSITIONS = 200;
+    private static final int EMPTY_CELLS = 14;
+
+    @Test
+    void takesAWinRightAway() {
+        // the first player has 4, 5 and 6 on the bottom row, so 3 and 7 both win
+        Solution solution = new Solver().solve(bitBoard("445566"));
+
+        assertTrue(solution.bestMove == 2 || solution.bestMove == 6, solution.toString());
+        assertEquals((42 + 1 - 6) / 2, solution.score);
+        assertEquals(1, solution.movesToEnd);
+        assertEquals("win", solution.outcome());
+    }
+
+    @Test
+    void seesTheOpenThreeAsALoss() {
+        // the second player can only block one end of 4, 5, 6 and loses on the first player's next move
+        Solution solution = new Solver().solve(bitBoard("44556"));
+
+        assertEquals("loss", solution.outcome());
+        assertEquals(2, solution.movesToEnd);
+        assertEquals(-(42 + 1 - 6) / 2, solution.score); // the first player wins with the 7th disc
+    }
+
+    @Test
+    void refusesAFullBoard() {
+        Board board = Board.create(4, 4, 4);
+        board.playMoves("1234123421434321"); // no four in a row anywhere
+
+        assertThrows(IllegalArgumentException.class, () -> new Solver().solve(board));
+    }
+
+    @Test
+    void matchesNegamaxOnTheBitBoard() {
+        checkAgainstNegamax(Board.create(BitBoard.WIDTH, BitBoard.HEIGHT, BitBoard.CONNECT), 1);
+    }
+
+    @Test
+    void matchesNegamaxOnAGridVariant() {
+        checkAgainstNegamax(Board.create(5, 4, 3), 2);
+    }
+
+    private static void checkAgainstNegamax(Board board, long seed) {
+        // variables
+        Solver solver = new Solver(new TranspositionTable(1 << 20));
+        Random random = new Random(seed);
+        StringBuilder moves = new StringBuilder();
+
+        for (int i = 0; i < POSITIONS; i++) {
+            Board position = randomPosition(board, random, moves);
+            Solution solution = solver.solve(position);
+
+            assertEquals(negamax(position), solution.score, "score of " + moves);
+            assertTrue(position.canPlay(solution.bestMove), "best move of " + moves);
+            if (position.isWinningMove(solution.bestMove)) {
+                assertEquals((position.size() + 1 - position.moves()) / 2, solution.score, "win of " + moves);
+            } else {
+                position.drop(solution.bestMove);
+                assertEquals(solution.score, -negamax(position), "best move of " + moves);
+                position.undo(solution.bestMove);
+            }
+        }
+    }
+
+    // a position with EMPTY_CELLS left that nobody has won yet, its moves are put in moves
+    private static Board randomPosition(Board board, Random random, StringBuilder moves) {
+        // variables
+        List<Integer> columns = new ArrayList<>();
+
+        board.reset();
+        moves.setLength(0);
+        while (board.moves() < board.size() - EMPTY_CELLS) {
+            columns.clear();
+            for (int col = 0; col < board.width(); col++) {
+                if (board.canPlay(col) && !board.isWinningMove(col)) {
+                    columns.add(col);
+                }
+            }
+            if (columns.isEmpty()) {
+                board.reset(); // every move wins, start over
+                moves.setLength(0);
+            } else {
+                int col = columns.get(random.nextInt(columns.size()));
+                board.drop(col);
+                moves.append((char) ('1' + col));
+            }
+        }
+        return board;
+    }
+
+    // the exact score, with wins scored the way the solver scores them
+    private static int negamax(Board board) {
+        // variables
+        int best = Integer.MIN_VALUE;
+
+        if (board.isFull()) {
+            return 0;
+        }
+        for (int col = 0; col < board.width(); col++) {
+            if (board.canPlay(col) && board.isWinningMove(col)) {
+                return (board.size() + 1 - board.moves()) / 2;
+            }
+        }
+        for (int col = 0; col < board.width(); col++) {
+            if (board.canPlay(col)) {
+                board.drop(col);
+                best = Math.max(best, -negamax(board));
+                board.undo(col);
+            }
+        }
+        return best;
+    }
+
+    private static Board bitBoard(String moves) {
+        Board board = new BitBoard();
+        board.playMoves(moves);
+        return board;
+    }
+}
@@ -0,0 +1,135 @@
+package connectfour;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Checks that the stats store finds players again, counts their results
+ * without losing any, and keeps them in the file.
+ */
+class StatsStoreTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void findsAPlayerAgain() throws IOException {
+        try (StatsStore store = StatsStore.open(dir.resolve("players.stats"), 16)) {
+            int ann = store.findOrCreate("ann");
+            int bob = store.findOrCreate("bob");
+
+            assertNotEquals(ann, bob);
+            assertEquals(ann, store.findOrCreate("ann"));
+            assertEquals(bob, store.find("bob"));
+            assertEquals(-1, store.find("cy"));
+            assertEquals("ann", store.name(ann));
+            assertEquals(2, store.size());
+        }
+    }
+
+    @Test
+    void keepsTheResultsInTheFile() throws IOException {
+        // variables
+        Path file = dir.resolve("players.stats");
+        int ann;
+
+        try (StatsStore store = StatsStore.open(file, 16)) {
+            ann = store.findOrCreate("ann");
+            store.recordResult(ann, GameResult.USER_WIN);
+            store.recordResult(ann, GameResult.USER_WIN);
+            store.recordResult(ann, GameResult.BOT_WIN);
+            store.recordResult(ann, GameResult.TIE);
+            store.recordResult(ann, GameResult.NOT_OVER);
+        }
+        try (StatsStore store = StatsStore.open(file, 1024)) {
+            assertEquals(16, store.capacity()); // an existing file keeps its capacity
+            assertEquals(ann, store.find("ann"));
+            assertEquals(2, store.wins(ann));
+            assertEquals(1, store.losses(ann));
+            assertEquals(1, store.ties(ann));
+        }
+    }
+
+    @Test
+    void saysWhenItIsFull() throws IOException {
+        try (StatsStore store = StatsStore.open(dir.resolve("players.stats"), 4)) {
+            for (int i = 0; i < store.capacity(); i++) {
+                store.findOrCreate("player" + i);
+            }
+            assertThrows(IllegalStateException.class, () -> store.findOrCreate("one too many"));
+            assertEquals(0, store.find("player0"));
+        }
+    }
+
+    @Test
+    void refusesOtherFiles() throws IOException {
+        Path other = dir.resolve("notes.txt");
+        Files.writeString(other, "not a stats store, just some text that is long enough");
+
+        assertThrows(IOException.class, () -> StatsStore.open(other, 16));
+    }
+
+    @Test
+    void countsResultsFromManyThreads() throws Exception {
+        // variables and constants
+        final int threads = 8;
+        final int games = 10_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> done = new ArrayList<>();
+
+        try (StatsStore store = StatsStore.open(dir.resolve("players.stats"), 64)) {
+            for (int t = 0; t < threads; t++) {
+                done.add(executor.submit(() -> {
+                    int player = store.findOrCreate("ann"); // every thread the same player
+                    for (int i = 0; i < games; i++) {
+                        store.recordResult(player, GameResult.USER_WIN);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : done) {
+                future.get();
+            }
+            assertEquals(1, store.size());
+            assertEquals(threads * games, store.wins(store.find("ann")));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void addsPlayersFromManyThreads() throws Exception {
+        // variables and constants
+        final int threads = 8;
+        final int players = 200;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> done = new ArrayList<>();
+
+        try (StatsStore store = StatsStore.open(dir.resolve("players.stats"), 2048)) {
+            for (int t = 0; t < threads; t++) {
+                int first = t * players;
+                done.add(executor.submit(() -> {
+                    for (int i = first; i < first + players; i++) {
+                        store.findOrCreate("p" + i); // the file lock can't be taken twice in one process
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : done) {
+                future.get();
+            }
+            assertEquals(threads * players, store.size());
+            for (int i = 0; i < threads * players; i++) {
+                assertEquals("p" + i, store.name(store.find("p" + i)));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
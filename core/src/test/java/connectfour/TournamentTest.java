@@ -0,0 +1,97 @@
+package connectfour;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks the tournament's Bradley-Terry ratings against results worked out by
+ * hand, and that its openings are different, playable and repeatable.
+ */
+class TournamentTest {
+
+    @Test
+    void ratesTwoStrategiesFromTheirScore() {
+        // a wins 75 of 100; with the made-up draw that is 75.5 of 101
+        long[][][] results = new long[2][2][Tournament.FIELDS];
+        results[0][1][Tournament.WINS] = 75;
+        results[0][1][Tournament.LOSSES] = 25;
+        results[1][0][Tournament.WINS] = 25;
+        results[1][0][Tournament.LOSSES] = 75;
+        double expected = 75.5 / 101;
+        double difference = 400 * Math.log10(expected / (1 - expected));
+
+        double[] ratings = Tournament.ratings(results);
+
+        assertEquals(difference / 2, ratings[0], 1e-6);
+        assertEquals(-difference / 2, ratings[1], 1e-6);
+        assertEquals(ratings[2], ratings[3], 1e-9); // the same games, so the same error
+        double information = 101 * expected * (1 - expected);
+        assertEquals(Tournament.ELO_PER_LOG / Math.sqrt(information), ratings[2], 1e-6);
+    }
+
+    @Test
+    void ratesEvenResultsTheSame() {
+        long[][][] results = new long[3][3][Tournament.FIELDS];
+        for (int i = 0; i < 3; i++) {
+            for (int j = 0; j < 3; j++) {
+                if (i != j) {
+                    results[i][j][Tournament.WINS] = 10;
+                    results[i][j][Tournament.DRAWS] = 4;
+                    results[i][j][Tournament.LOSSES] = 10;
+                }
+            }
+        }
+
+        double[] ratings = Tournament.ratings(results);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, ratings[i], 1e-9);
+        }
+    }
+
+    @Test
+    void ratesAStrategyThatNeverLostFinitely() {
+        long[][][] results = new long[2][2][Tournament.FIELDS];
+        results[0][1][Tournament.WINS] = 50;
+        results[1][0][Tournament.LOSSES] = 50;
+
+        double[] ratings = Tournament.ratings(results);
+
+        assertTrue(Double.isFinite(ratings[0]) && ratings[0] > 0);
+        assertEquals(-ratings[0], ratings[1], 1e-6);
+    }
+
+    @Test
+    void dealsDifferentRepeatableOpenings() {
+        // variables
+        Board board = new BitBoard();
+        List<String> openings = Tournament.openings(board, 50, 4, 7);
+        Set<Long> positions = new HashSet<>();
+
+        assertEquals(openings, Tournament.openings(board, 50, 4, 7));
+        assertNotEquals(openings, Tournament.openings(board, 50, 4, 8));
+        for (String opening : openings) {
+            board.reset();
+            board.playMoves(opening);
+            assertEquals(4, opening.length());
+            assertTrue(positions.add(board.canonicalKey()), "mirror or repeat: " + opening);
+            for (int col = 0; col < board.width(); col++) {
+                assertFalse(board.canPlay(col) && board.isWinningMove(col), "won right away: " + opening);
+            }
+        }
+    }
+
+    @Test
+    void runsOutOfOpeningsOnATinyBoard() {
+        assertThrows(IllegalStateException.class, () -> Tournament.openings(Board.create(4, 4, 4), 1000, 2, 1));
+    }
+
+    @Test
+    void startsOverWhenEveryColumnWins() {
+        // two in a row on 2 x 2: the first player's second disc always wins, so no opening gets to 3 moves
+        assertThrows(IllegalStateException.class, () -> Tournament.openings(Board.create(2, 2, 2), 1, 3, 1));
+        assertEquals(1, Tournament.openings(Board.create(2, 2, 2), 1, 1, 1).get(0).length());
+    }
+}
@@ -0,0 +1,131 @@
+package connectfour;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks what the transposition table packs into an entry, when it replaces
+ * one, and that threads sharing it never read an entry under the wrong key.
+ */
+class TranspositionTableTest {
+
+    @Test
+    void givesBackWhatWasStored() {
+        TranspositionTable table = new TranspositionTable(1 << 16);
+
+        assertEquals(0, table.probe(42));
+        table.store(42, -17, 9, TranspositionTable.LOWER, 6);
+        table.store(43, 21, 0, TranspositionTable.EXACT, -1);
+
+        long entry = table.probe(42);
+        assertEquals(-17, TranspositionTable.score(entry));
+        assertEquals(9, TranspositionTable.depth(entry));
+        assertEquals(TranspositionTable.LOWER, TranspositionTable.bound(entry));
+        assertEquals(6, TranspositionTable.move(entry));
+        assertEquals(-1, TranspositionTable.move(table.probe(43)));
+        assertEquals(21, TranspositionTable.score(table.probe(43)));
+    }
+
+    @Test
+    void roundsDownToAPowerOfTwo() {
+        assertEquals(4096, new TranspositionTable(100_000).capacity());
+        assertEquals(1024, new TranspositionTable(0).capacity()); // never less than 1024 slots
+    }
+
+    @Test
+    void keepsTheDeeperEntryOfTheSameSearch() {
+        // variables
+        TranspositionTable table = new TranspositionTable(1 << 14);
+        long key = 12345;
+        long other = collidingKey(table, key);
+
+        table.store(key, 5, 10, TranspositionTable.EXACT, 3);
+        table.store(other, 7, 4, TranspositionTable.EXACT, 2);
+        assertEquals(10, TranspositionTable.depth(table.probe(key)));
+        assertEquals(0, table.probe(other));
+
+        table.store(key, 6, 2, TranspositionTable.UPPER, 1); // the same position is always updated
+        assertEquals(2, TranspositionTable.depth(table.probe(key)));
+
+        table.store(key, 5, 10, TranspositionTable.EXACT, 3);
+        table.newSearch();
+        table.store(other, 7, 4, TranspositionTable.EXACT, 2); // an older search's entry gives way
+        assertEquals(0, table.probe(key));
+        assertEquals(4, TranspositionTable.depth(table.probe(other)));
+    }
+
+    @Test
+    void clearEmptiesTheTable() {
+        TranspositionTable table = new TranspositionTable(1 << 16);
+        table.store(42, 1, 1, TranspositionTable.EXACT, 0);
+        table.clear();
+
+        assertEquals(0, table.probe(42));
+        assertEquals(0, table.used());
+        assertEquals(0, table.stores());
+    }
+
+    @Test
+    void sharedByThreadsWithoutMixingUpEntries() throws Exception {
+        // variables and constants
+        final int threads = 4;
+        final int rounds = 200_000;
+        TranspositionTable table = new TranspositionTable(1 << 14); // small, so threads keep overwriting each other
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<Long>> hits = new ArrayList<>();
+
+        try {
+            for (int t = 0; t < threads; t++) {
+                long seed = t;
+                hits.add(executor.submit(() -> {
+                    SplittableRandom random = new SplittableRandom(seed);
+                    long found = 0;
+                    for (int i = 0; i < rounds; i++) {
+                        long key = random.nextLong(1, 5000);
+                        long entry = table.probe(key);
+                        if (entry != 0) {
+                            // every thread stores the same score, depth and move for a key
+                            assertEquals(scoreOf(key), TranspositionTable.score(entry), "key " + key);
+                            assertEquals(depthOf(key), TranspositionTable.depth(entry), "key " + key);
+                            assertEquals((int) (key % 7), TranspositionTable.move(entry), "key " + key);
+                            found++;
+                        }
+                        table.store(key, scoreOf(key), depthOf(key), TranspositionTable.EXACT, (int) (key % 7));
+                    }
+                    return found;
+                }));
+            }
+            long found = 0;
+            for (Future<Long> future : hits) {
+                found += future.get();
+            }
+            assertTrue(found > 0);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static int scoreOf(long key) {
+        return (int) (key % 41) - 20;
+    }
+
+    private static int depthOf(long key) {
+        return (int) (key % 30) + 1;
+    }
+
+    // another key that lands in the same slot: the table is the only judge of that, so ask it
+    private static long collidingKey(TranspositionTable table, long key) {
+        for (long other = key + 1; ; other++) {
+            table.clear();
+            table.store(key, 0, 1, TranspositionTable.EXACT, 0);
+            table.store(other, 0, 1, TranspositionTable.EXACT, 0);
+            if (table.probe(key) == 0) {
+                table.clear();
+                return other;
+            }
+        }
+    }
+}